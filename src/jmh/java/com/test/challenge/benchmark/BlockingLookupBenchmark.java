@@ -0,0 +1,119 @@
+package com.test.challenge.benchmark;
+
+import com.test.challenge.ChallengeApplication;
+import com.test.challenge.entities.Token;
+import com.test.challenge.entities.User;
+import com.test.challenge.enums.Role;
+import com.test.challenge.repositories.TokenRepository;
+import com.test.challenge.repositories.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * Repository lookups per second when {@code REQUESTS} requests arrive at once, served either by a pool of
+ * platform threads the size of Tomcat's default or by one virtual thread per request. Both look up users and
+ * tokens the way the authentication path does, against the application's own H2 database and connection pool.
+ * Only the platform variant runs by default, since the virtual one needs Java 21:
+ * <pre>
+ * JAVA_HOME=/path/to/jdk-21 PATH=$JAVA_HOME/bin:$PATH mvn -Pbenchmark test-compile exec:exec \
+ *     -Djmh.args="BlockingLookup -p threads=PLATFORM,VIRTUAL"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BlockingLookupBenchmark {
+    private static final int USERS = 1000;
+    private static final int REQUESTS = 2000;
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    public enum Threads { PLATFORM, VIRTUAL }
+
+    @Param({"PLATFORM"})
+    private Threads threads;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private TokenRepository tokenRepository;
+    private ExecutorService platformPool;
+    private Executor executor;
+
+    @Setup
+    public void setUp() {
+        if (threads == Threads.VIRTUAL && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need Java 21, this JVM is " + Runtime.version());
+        }
+        context = new SpringApplicationBuilder(ChallengeApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run("--spring.jpa.show-sql=false", "--spring.main.banner-mode=off", "--logging.level.root=WARN");
+        userRepository = context.getBean(UserRepository.class);
+        tokenRepository = context.getBean(TokenRepository.class);
+
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            users.add(User.builder().username("user" + i).email("user" + i + "@example.com").role(Role.USER).build());
+        }
+        users = userRepository.saveAll(users);
+        List<Token> tokens = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            tokens.add(Token.builder().tokenHash(tokenHash(i)).user(users.get(i)).build());
+        }
+        tokenRepository.saveAll(tokens);
+
+        if (threads == Threads.VIRTUAL) {
+            executor = new VirtualThreadTaskExecutor("lookup-");
+        } else {
+            platformPool = Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+            executor = platformPool;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (platformPool != null) {
+            platformPool.shutdownNow();
+        }
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public void findByUsername() {
+        serve(i -> userRepository.findByUsername("user" + (i % USERS)).orElseThrow());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public void findByTokenHash() {
+        serve(i -> tokenRepository.findByTokenHash(tokenHash(i % USERS)).orElseThrow());
+    }
+
+    private void serve(IntConsumer request) {
+        CompletableFuture<?>[] requests = new CompletableFuture<?>[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            int index = i;
+            requests[i] = CompletableFuture.runAsync(() -> request.accept(index), executor);
+        }
+        CompletableFuture.allOf(requests).join();
+    }
+
+    private static byte[] tokenHash(int index) {
+        return ByteBuffer.allocate(32).putInt(index).array();
+    }
+}
@@ -0,0 +1,66 @@
+package com.test.challenge.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.test.challenge.entities.Token;
+import com.test.challenge.entities.User;
+import com.test.challenge.enums.Role;
+import com.test.challenge.repositories.TokenRepository;
+import com.test.challenge.repositories.UserRepository;
+import com.test.challenge.service.impl.JwtService;
+import com.test.challenge.service.impl.TokenRevocationCache;
+import com.test.challenge.service.impl.UserCache;
+import com.test.challenge.service.impl.UserDetailsServiceImp;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Services wired as in the application, with repositories replaced by mocks so that benchmarks
+ * measure the code under test and not the database. Every repository lookup finds the same active user.
+ */
+final class Fixtures {
+    static final Duration TOKEN_LIFETIME = Duration.ofHours(24);
+
+    private Fixtures() {
+    }
+
+    static User user() {
+        return User.builder()
+                .id(1L)
+                .username("john_doe")
+                .email("john.doe@example.com")
+                .password("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z4ZfCx7bYX0wZJ4fBvBu3G2e")
+                .role(Role.USER)
+                .version(0L)
+                .build();
+    }
+
+    static JwtService jwtService() {
+        TokenRepository tokenRepository = mock(TokenRepository.class);
+        when(tokenRepository.findByTokenHash(any())).thenReturn(Optional.of(Token.builder().loggedOut(false).build()));
+        return new JwtService(tokenRepository, new TokenRevocationCache(100_000, new SimpleMeterRegistry()), TOKEN_LIFETIME);
+    }
+
+    static UserDetailsServiceImp userDetailsService() {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(user()));
+        return new UserDetailsServiceImp(new UserCache(userRepository, 10_000, Duration.ofMinutes(5), new SimpleMeterRegistry()));
+    }
+
+    /**
+     * Configured like the ObjectMapper Spring Boot provides.
+     */
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+package com.test.challenge.benchmark;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.test.challenge.entities.User;
+import com.test.challenge.enums.GeneratorEngine;
+import com.test.challenge.enums.UserDataFormat;
+import com.test.challenge.service.impl.UserDataFormats;
+import com.test.challenge.service.impl.UserGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Users per second read from an import upload, the first stage of every import, in each format.
+ * The payload is produced by the generator, as uploads usually are.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ImportParsingBenchmark {
+    private static final int USERS = 1000;
+
+    @Param({"JSON", "NDJSON", "CSV"})
+    private UserDataFormat format;
+
+    private UserDataFormats userDataFormats;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        userDataFormats = new UserDataFormats(Fixtures.objectMapper());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        UserGenerator generator = new UserGenerator(USERS, 1);
+        try (SequenceWriter writer = userDataFormats.openWriter(format, out)) {
+            generator.generate(USERS, 42, 0, GeneratorEngine.DICTIONARY, writer::write);
+        } finally {
+            generator.shutdown();
+        }
+        payload = out.toByteArray();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(USERS)
+    public void parse(Blackhole blackhole) throws IOException {
+        try (MappingIterator<User> users = userDataFormats.openReader(new ByteArrayInputStream(payload), format)) {
+            while (users.hasNextValue()) {
+                blackhole.consume(users.nextValue());
+            }
+        }
+    }
+}
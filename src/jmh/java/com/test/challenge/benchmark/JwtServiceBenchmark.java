@@ -0,0 +1,46 @@
+package com.test.challenge.benchmark;
+
+import com.test.challenge.entities.User;
+import com.test.challenge.service.impl.JwtService;
+import com.test.challenge.service.impl.VerifiedToken;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issuing a token at login, and the verification every authenticated request goes through.
+ * {@code isValid} hits the revocation cache, as it does for all but the first request with a token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtServiceBenchmark {
+    private JwtService jwtService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = Fixtures.jwtService();
+        user = Fixtures.user();
+        token = jwtService.generateToken(user);
+        jwtService.isValid(token, user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public VerifiedToken verify() {
+        return jwtService.verify(token);
+    }
+
+    @Benchmark
+    public boolean verifyAndCheckRevocation() {
+        return jwtService.isValid(jwtService.verify(token), user);
+    }
+}
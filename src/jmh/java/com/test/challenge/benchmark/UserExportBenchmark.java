@@ -0,0 +1,55 @@
+package com.test.challenge.benchmark;
+
+import com.test.challenge.enums.GeneratorEngine;
+import com.test.challenge.enums.UserDataFormat;
+import com.test.challenge.service.impl.UserDataFormats;
+import com.test.challenge.service.impl.UserGenerator;
+import com.test.challenge.service.impl.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Users per second written by {@link UserService#generateUsers}, the body of {@code /api/users/generate},
+ * in each output format. Generation uses the dictionary engine on one thread so that serialization
+ * is a visible share of the cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserExportBenchmark {
+    private static final int USERS = 1000;
+
+    @Param({"JSON", "NDJSON", "CSV"})
+    private UserDataFormat format;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    private UserGenerator generator;
+    private UserService userService;
+    private long seed;
+
+    @Setup
+    public void setUp() {
+        generator = new UserGenerator(USERS, 1);
+        userService = new UserService(null, null, null, null, null, null, null,
+                new UserDataFormats(Fixtures.objectMapper()), null, generator, null, new SimpleMeterRegistry(), null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        generator.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(USERS)
+    public void generateUsers() throws IOException {
+        userService.generateUsers(USERS, seed++, 0, GeneratorEngine.DICTIONARY, format, gzip, OutputStream.nullOutputStream());
+    }
+}
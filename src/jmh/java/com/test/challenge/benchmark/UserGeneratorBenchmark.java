@@ -0,0 +1,43 @@
+package com.test.challenge.benchmark;
+
+import com.test.challenge.enums.GeneratorEngine;
+import com.test.challenge.service.impl.UserGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Users generated per second by each engine, on a single generator thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserGeneratorBenchmark {
+    private static final int USERS = 1000;
+
+    @Param({"FAKER", "DICTIONARY"})
+    private GeneratorEngine engine;
+
+    private UserGenerator generator;
+    private long seed;
+
+    @Setup
+    public void setUp() {
+        generator = new UserGenerator(USERS, 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        generator.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(USERS)
+    public void generate(Blackhole blackhole) throws IOException {
+        generator.generate(USERS, seed++, 0, engine, blackhole::consume);
+    }
+}
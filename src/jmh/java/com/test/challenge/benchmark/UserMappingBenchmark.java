@@ -0,0 +1,71 @@
+package com.test.challenge.benchmark;
+
+import com.test.challenge.dto.AuthDto.UserDTO;
+import com.test.challenge.entities.User;
+import com.test.challenge.enums.Role;
+import com.test.challenge.service.impl.UserMapper;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Users mapped to {@link UserDTO} per second, as a list response of {@code USERS} users, by the
+ * default {@link ModelMapper} and by the hand-written {@link UserMapper}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserMappingBenchmark {
+    private static final int USERS = 100;
+
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final UserMapper userMapper = new UserMapper();
+    private List<User> users;
+
+    @Setup
+    public void setUp() {
+        users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            users.add(User.builder()
+                    .id((long) i)
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .birthDate(new Date(i * 86_400_000L))
+                    .city("City" + i)
+                    .country("MA")
+                    .avatar("https://example.com/" + i + ".png")
+                    .company("Company" + i)
+                    .jobPosition("Position" + i)
+                    .mobile("+2126000000" + i)
+                    .username("user" + i)
+                    .email("user" + i + "@example.com")
+                    .password("hash" + i)
+                    .role(i % 2 == 0 ? Role.USER : Role.ADMIN)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(USERS)
+    public List<UserDTO> modelMapper() {
+        // The way UserService mapped list responses before
+        return Arrays.asList(modelMapper.map(users, UserDTO[].class));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(USERS)
+    public List<UserDTO> userMapper() {
+        List<UserDTO> dtos = new ArrayList<>(users.size());
+        for (User user : users) {
+            dtos.add(userMapper.toDto(user));
+        }
+        return dtos;
+    }
+}
@@ -1,7 +1,8 @@
 package com.test.challenge.config;
 
-import com.test.challenge.entities.Token;
 import com.test.challenge.repositories.TokenRepository;
+import com.test.challenge.service.impl.JwtService;
+import com.test.challenge.service.impl.TokenRevocationCache;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.context.annotation.Configuration;
@@ -12,9 +13,15 @@ import org.springframework.security.web.authentication.logout.LogoutHandler;
 public class CustomLogoutHandler implements LogoutHandler {
 
     private final TokenRepository tokenRepository;
+    private final JwtService jwtService;
+    private final TokenRevocationCache revocationCache;
 
-    public CustomLogoutHandler(TokenRepository tokenRepository) {
+    public CustomLogoutHandler(TokenRepository tokenRepository,
+                               JwtService jwtService,
+                               TokenRevocationCache revocationCache) {
         this.tokenRepository = tokenRepository;
+        this.jwtService = jwtService;
+        this.revocationCache = revocationCache;
     }
 
     @Override
@@ -26,11 +33,8 @@ public class CustomLogoutHandler implements LogoutHandler {
         }
 
         String token = authHeader.substring(7);
-        Token storedToken = tokenRepository.findByToken(token).orElse(null);
-
-        if(storedToken != null) {
-            storedToken.setLoggedOut(true);
-            tokenRepository.save(storedToken);
+        if(tokenRepository.revokeByTokenHash(jwtService.hashToken(token)) > 0) {
+            revocationCache.revoke(token, jwtService.extractExpirationOrNull(token));
         }
     }
 }
@@ -2,13 +2,18 @@ package com.test.challenge.config;
 
 import com.test.challenge.service.impl.JwtService;
 import com.test.challenge.service.impl.UserDetailsServiceImp;
+import com.test.challenge.service.impl.VerifiedToken;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -20,11 +25,22 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
     private final UserDetailsServiceImp userDetailsService;
+    private final boolean statelessPrincipal;
+    private final Timer parseTimer;
+    private final Timer userLoadTimer;
+    private final Timer validationTimer;
 
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsServiceImp userDetailsService) {
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   UserDetailsServiceImp userDetailsService,
+                                   @Value("${security.jwt.stateless-principal:false}") boolean statelessPrincipal,
+                                   MeterRegistry meterRegistry) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.statelessPrincipal = statelessPrincipal;
+        this.parseTimer = phaseTimer("parse", meterRegistry);
+        this.userLoadTimer = phaseTimer("user_load", meterRegistry);
+        this.validationTimer = phaseTimer("validation", meterRegistry);
     }
 
     @Override
@@ -41,14 +57,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         String token = authHeader.substring(7);
-        String username = jwtService.extractUsername(token);
+        VerifiedToken verifiedToken = parseTimer.record(() -> jwtService.verify(token));
+        String username = verifiedToken.getSubject();
 
         if(username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            UserDetails userDetails = userLoadTimer.record(() -> loadPrincipal(verifiedToken));
 
 
-            if(jwtService.isValid(token, userDetails)) {
+            if(Boolean.TRUE.equals(validationTimer.record(() -> jwtService.isValid(verifiedToken, userDetails)))) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities()
                 );
@@ -63,4 +80,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
 
     }
+
+    private static Timer phaseTimer(String phase, MeterRegistry meterRegistry) {
+        return Timer.builder("auth.filter")
+                .description("Phases of authenticating a request from its bearer token")
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+
+    /**
+     * In stateless mode the principal is rebuilt from the verified claims instead of loading the user.
+     * The claims cannot go stale: any update of the user revokes its tokens, see
+     * {@link com.test.challenge.service.impl.UserChangeRevoker}, and the revocation check below still runs.
+     * Tokens issued before the role claim existed still go through the user lookup.
+     */
+    private UserDetails loadPrincipal(VerifiedToken verifiedToken) {
+        if (statelessPrincipal && verifiedToken.getRole() != null) {
+            return User.withUsername(verifiedToken.getSubject())
+                    .password("")
+                    .authorities("ROLE_" + verifiedToken.getRole())
+                    .build();
+        }
+        return userDetailsService.loadUserByUsername(verifiedToken.getSubject());
+    }
 }
@@ -0,0 +1,76 @@
+package com.test.challenge.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while counting is started.
+ * Registered with Hibernate as its statement inspector, it sees every statement and leaves them unchanged.
+ * Work a request hands to another thread is only counted when wrapped with {@link #propagate}.
+ */
+@Component
+public class QueryCounter implements StatementInspector, HibernatePropertiesCustomizer {
+    private final ThreadLocal<AtomicInteger> count = new ThreadLocal<>();
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        AtomicInteger current = count.get();
+        if (current != null) {
+            current.incrementAndGet();
+        }
+        return sql;
+    }
+
+    /**
+     * @return the count, which keeps growing with statements of propagated tasks after {@link #stop()}
+     */
+    public AtomicInteger start() {
+        AtomicInteger current = new AtomicInteger();
+        count.set(current);
+        return current;
+    }
+
+    /**
+     * @return the statements counted on this thread since {@link #start()}
+     */
+    public int stop() {
+        AtomicInteger current = count.get();
+        count.remove();
+        return current != null ? current.get() : 0;
+    }
+
+    /**
+     * Makes {@code task} count its statements into the count started on the calling thread, whichever
+     * thread runs it.
+     */
+    public <T> Supplier<T> propagate(Supplier<T> task) {
+        AtomicInteger current = count.get();
+        if (current == null) {
+            return task;
+        }
+        return () -> {
+            AtomicInteger previous = count.get();
+            count.set(current);
+            try {
+                return task.get();
+            } finally {
+                if (previous != null) {
+                    count.set(previous);
+                } else {
+                    count.remove();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,19 @@
+package com.test.challenge.config;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a bounded resource is saturated and the request should be retried later; answered with
+ * {@code 503 Service Unavailable} and a {@code Retry-After} header.
+ */
+@Getter
+public class ServiceOverloadedException extends RuntimeException {
+    private final Duration retryAfter;
+
+    public ServiceOverloadedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
@@ -3,10 +3,18 @@ package com.test.challenge.controller;
 import com.test.challenge.dto.AuthDto.AuthRequestDTO;
 import com.test.challenge.dto.AuthDto.AuthResponseDTO;
 import com.test.challenge.dto.AuthDto.BatchResponseDTO;
+import com.test.challenge.dto.AuthDto.ImportJobDTO;
+import com.test.challenge.dto.AuthDto.KeysetPageDTO;
 import com.test.challenge.dto.AuthDto.UserDTO;
+import com.test.challenge.dto.AuthDto.UserSearchDTO;
+import com.test.challenge.dto.AuthDto.UserSummaryDTO;
 import com.test.challenge.entities.User;
+import com.test.challenge.enums.GeneratorEngine;
+import com.test.challenge.enums.UserDataFormat;
 import com.test.challenge.repositories.UserRepository;
+import com.test.challenge.service.impl.ImportJobService;
 import com.test.challenge.service.impl.UserService;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -14,70 +22,157 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
 import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
 
+@Slf4j
 @RestController
 @RequestMapping(path = "/api/users", produces = MediaType.APPLICATION_JSON_VALUE)
 public class UserController {
     private final UserService userService;
     private final UserRepository userRepository;
+    private final ImportJobService importJobService;
 
-    public UserController(UserService userService, UserRepository userRepository) {
+    public UserController(UserService userService, UserRepository userRepository, ImportJobService importJobService) {
         this.userService = userService;
         this.userRepository = userRepository;
+        this.importJobService = importJobService;
     }
 
+    /**
+     * Verified on the login executor; the request thread is released until the result is ready.
+     */
     @PostMapping("/login")
-    public ResponseEntity<AuthResponseDTO> login(@Valid @RequestBody AuthRequestDTO request) {
-        return ResponseEntity.ok(userService.authenticate(request));
+    public CompletableFuture<ResponseEntity<AuthResponseDTO>> login(@Valid @RequestBody AuthRequestDTO request) {
+        return userService.authenticateAsync(request).thenApply(ResponseEntity::ok);
     }
 
-    @GetMapping("/generate")
-    public ResponseEntity<byte[]> generateUsers(@RequestParam int count) {
-        System.out.println("ok ");
-        String users = userService.generateUsers(count);
-        byte[] data;
-        try {
-            data = users.getBytes("UTF-8");
-        } catch (IOException e) {
-            e.printStackTrace();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
-        }
+    /**
+     * Streams generated users in the format asked for by {@code format} or, when it is absent, by the
+     * {@code Accept} header. The body is compressed with {@code Content-Encoding: gzip} when the
+     * {@code Accept-Encoding} header allows it; {@code gzip=true} instead downloads a {@code .gz} file.
+     */
+    @GetMapping(path = "/generate", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<StreamingResponseBody> generateUsers(@RequestParam int count,
+                                                               @RequestParam(required = false) Long seed,
+                                                               @RequestParam(defaultValue = "0") int shard,
+                                                               @RequestParam(defaultValue = "FAKER") GeneratorEngine engine,
+                                                               @RequestParam(required = false) UserDataFormat format,
+                                                               @RequestParam(defaultValue = "false") boolean gzip,
+                                                               @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                               @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        long effectiveSeed = seed != null ? seed : ThreadLocalRandom.current().nextLong();
+        UserDataFormat effectiveFormat = format != null ? format : negotiateFormat(accept);
+        boolean contentEncoding = !gzip && acceptsGzip(acceptEncoding);
         String timestamp = Long.toString(System.currentTimeMillis());
-        String filename = "random_users_" + timestamp + ".json";
+        String filename = "random_users_" + timestamp + effectiveFormat.getExtension() + (gzip ? ".gz" : "");
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        headers.setContentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType(effectiveFormat.getMediaType()));
+        if (contentEncoding) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        headers.setVary(List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING));
         headers.setContentDispositionFormData(filename, filename);
+        // Returned so that a random dataset can be regenerated later
+        headers.set("X-Generator-Seed", Long.toString(effectiveSeed));
+        StreamingResponseBody body = out -> userService.generateUsers(count, effectiveSeed, shard, engine, effectiveFormat,
+                gzip || contentEncoding, out);
         return ResponseEntity.ok()
                 .headers(headers)
-                .body(data);
+                .body(body);
+    }
+
+    /**
+     * The first format the client accepts, by quality and then header order; JSON when any will do.
+     */
+    private static UserDataFormat negotiateFormat(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return UserDataFormat.JSON;
+        }
+        List<MediaType> accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType mediaType : accepted) {
+            for (UserDataFormat candidate : UserDataFormat.values()) {
+                if (mediaType.getQualityValue() > 0 && mediaType.includes(MediaType.parseMediaType(candidate.getMediaType()))) {
+                    return candidate;
+                }
+            }
+        }
+        return UserDataFormat.JSON;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
     }
 
+    /**
+     * Imports while the request waits. Shares the job slots of {@code /batch/jobs}, so it answers
+     * {@code 503} when they are all busy.
+     */
     @PostMapping(path = "/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
                                         produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<BatchResponseDTO> batchImportUsers(@RequestPart("file") MultipartFile file) {
+    public ResponseEntity<BatchResponseDTO> batchImportUsers(@RequestPart("file") MultipartFile file,
+                                                             @RequestParam(required = false) UserDataFormat format) {
         try {
-            BatchResponseDTO response = userService.batchImportUsers(file.getInputStream());
+            BatchResponseDTO response = importJobService.importNow(file.getInputStream(), format);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (IOException e) {
-            e.printStackTrace();
+            log.error("Could not read the uploaded file", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new BatchResponseDTO(0, -1));
         }
     }
 
+    /**
+     * Starts the import in the background and answers {@code 202} with the job, whose progress is then
+     * available at the {@code Location} URL.
+     */
+    @PostMapping(path = "/batch/jobs", consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+                                            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportJobDTO> submitImportJob(@RequestPart("file") MultipartFile file,
+                                                        @RequestParam(required = false) UserDataFormat format) throws IOException {
+        ImportJobDTO job = importJobService.submit(file, format);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/users/batch/jobs/" + job.getId()))
+                .body(job);
+    }
 
-    @GetMapping("/me")
-    public ResponseEntity<?> getCurrentUser() {
-        List<UserDTO> users = userService.getCurrentUser();
-        return ResponseEntity.ok(users);
+    @GetMapping("/batch/jobs/{id}")
+    public ResponseEntity<ImportJobDTO> getImportJob(@PathVariable String id) {
+        return ResponseEntity.of(importJobService.find(id));
     }
 
+    @GetMapping("/me")
+    public ResponseEntity<KeysetPageDTO<UserSummaryDTO>> getCurrentUser(@RequestParam(required = false) Long after,
+                                                                        @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(userService.getCurrentUser(after, size));
+    }
 
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<KeysetPageDTO<UserSummaryDTO>> searchUsers(UserSearchDTO filter,
+                                                                     @RequestParam(required = false) Long after,
+                                                                     @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(userService.search(filter, after, size));
+    }
 
     @GetMapping("/{username}")
     @PreAuthorize("hasRole('ADMIN')")
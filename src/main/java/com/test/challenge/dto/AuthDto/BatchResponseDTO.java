@@ -10,4 +10,12 @@ import lombok.NoArgsConstructor;
 public class BatchResponseDTO {
     private int successfullyInsertedRows;
     private int failedToInsertRows;
+    /**
+     * Rows among {@code failedToInsertRows} whose username or email already existed or appeared earlier in the file.
+     */
+    private int duplicateRows;
+
+    public BatchResponseDTO(int successfullyInsertedRows, int failedToInsertRows) {
+        this(successfullyInsertedRows, failedToInsertRows, 0);
+    }
 }
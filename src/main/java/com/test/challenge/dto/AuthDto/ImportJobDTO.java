@@ -0,0 +1,27 @@
+package com.test.challenge.dto.AuthDto;
+
+import com.test.challenge.enums.ImportJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportJobDTO {
+    private String id;
+    private ImportJobStatus status;
+    private long processedRows;
+    private long insertedRows;
+    private long failedRows;
+    private long duplicateRows;
+    private double rowsPerSecond;
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+}
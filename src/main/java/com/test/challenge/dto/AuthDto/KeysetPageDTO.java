@@ -0,0 +1,31 @@
+package com.test.challenge.dto.AuthDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * One page of a listing ordered by id. The next page is requested with {@code after=nextCursor};
+ * {@code nextCursor} is {@code null} on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetPageDTO<T> {
+    private List<T> content;
+    private Long nextCursor;
+
+    /**
+     * @param rows up to {@code size + 1} rows; the extra row only tells that another page exists
+     */
+    public static <T> KeysetPageDTO<T> of(List<T> rows, int size, ToLongFunction<T> id) {
+        if (rows.size() <= size) {
+            return new KeysetPageDTO<>(rows, null);
+        }
+        List<T> content = rows.subList(0, size);
+        return new KeysetPageDTO<>(List.copyOf(content), id.applyAsLong(content.get(size - 1)));
+    }
+}
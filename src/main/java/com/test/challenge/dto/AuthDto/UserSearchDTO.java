@@ -0,0 +1,23 @@
+package com.test.challenge.dto.AuthDto;
+
+import com.test.challenge.enums.Role;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filters of a user search, bound from query parameters. Each filter is an exact match and the ones
+ * given are combined with AND; blank or missing filters match every user.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserSearchDTO {
+    private String country;
+    private String company;
+    private String city;
+    private Role role;
+    private String jobPosition;
+}
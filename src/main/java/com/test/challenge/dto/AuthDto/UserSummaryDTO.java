@@ -0,0 +1,28 @@
+package com.test.challenge.dto.AuthDto;
+
+import com.test.challenge.enums.Role;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The columns user listings need, selected directly by JPQL constructor expressions instead of
+ * loading and mapping whole entities.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserSummaryDTO {
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String username;
+    private String email;
+    private String city;
+    private String country;
+    private String company;
+    private String jobPosition;
+    private Role role;
+}
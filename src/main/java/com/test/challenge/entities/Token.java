@@ -8,11 +8,19 @@ import lombok.NoArgsConstructor;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
+import java.time.Instant;
+
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "token")
+@Table(name = "token",
+        uniqueConstraints = @UniqueConstraint(name = "uk_token_token_hash", columnNames = "token_hash"),
+        indexes = {
+                @Index(name = "idx_token_expires_at", columnList = "expires_at"),
+                @Index(name = "idx_token_is_logged_out", columnList = "is_logged_out"),
+                @Index(name = "idx_token_user_id", columnList = "user_id")
+        })
 @Builder
 public class Token {
     @Id
@@ -20,12 +28,18 @@ public class Token {
     @Column(name = "id")
     private Integer id;
 
-    @Column(name = "token")
-    private String token;
+    /**
+     * SHA-256 of the issued JWT. The raw token is never stored, lookups go through the unique index.
+     */
+    @Column(name = "token_hash", length = 32, nullable = false)
+    private byte[] tokenHash;
 
     @Column(name = "is_logged_out")
     private boolean loggedOut;
 
+    @Column(name = "expires_at")
+    private Instant expiresAt;
+
     @ManyToOne
     @JoinColumn(name = "user_id")
     @OnDelete(action = OnDeleteAction.CASCADE)
@@ -1,6 +1,9 @@
 package com.test.challenge.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.test.challenge.enums.Role;
+import com.test.challenge.service.impl.UserChangeListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -16,14 +19,26 @@ import java.util.Date;
 import java.util.List;
 
 @Entity
-@Table(name = "users")
+// Each searchable column is indexed together with id, so that a search seeks to its page in id order.
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_country_id", columnList = "country, id"),
+        @Index(name = "idx_users_company_id", columnList = "company, id"),
+        @Index(name = "idx_users_city_id", columnList = "city, id"),
+        @Index(name = "idx_users_role_id", columnList = "role, id"),
+        @Index(name = "idx_users_job_position_id", columnList = "job_position, id")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
+@EntityListeners(UserChangeListener.class)
+@JsonIgnoreProperties(value = {"authorities", "enabled", "accountNonExpired", "accountNonLocked", "credentialsNonExpired"},
+        ignoreUnknown = true)
 public class User implements UserDetails {
+    // Pooled sequence ids let Hibernate batch inserts, which IDENTITY columns prevent.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 100)
     private Long id;
 
     private String firstName;
@@ -46,6 +61,14 @@ public class User implements UserDetails {
     @Enumerated(EnumType.STRING)
     private Role role;
 
+    /**
+     * Bumped by every update of the row, which also revokes the user's tokens, and embedded in issued
+     * tokens as the {@code ver} claim.
+     */
+    @Version
+    @JsonIgnore
+    private Long version;
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of(new SimpleGrantedAuthority("ROLE_"+role.name()));
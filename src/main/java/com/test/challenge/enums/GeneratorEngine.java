@@ -0,0 +1,12 @@
+package com.test.challenge.enums;
+
+public enum GeneratorEngine {
+    /**
+     * Resolves every field through JavaFaker's expressions.
+     */
+    FAKER,
+    /**
+     * Picks fields from JavaFaker's dictionaries, loaded once into arrays.
+     */
+    DICTIONARY
+}
@@ -0,0 +1,14 @@
+package com.test.challenge.enums;
+
+public enum ImportJobStatus {
+    /**
+     * Accepted and waiting for its runner thread to start.
+     */
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    /**
+     * Stopped early, typically because the upload could not be parsed. Rows inserted before that are kept.
+     */
+    FAILED
+}
@@ -0,0 +1,32 @@
+package com.test.challenge.enums;
+
+public enum UserDataFormat {
+    /**
+     * One JSON array holding every user.
+     */
+    JSON("application/json", ".json"),
+    /**
+     * One JSON object per line.
+     */
+    NDJSON("application/x-ndjson", ".ndjson"),
+    /**
+     * A header line followed by one user per line.
+     */
+    CSV("text/csv", ".csv");
+
+    private final String mediaType;
+    private final String extension;
+
+    UserDataFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
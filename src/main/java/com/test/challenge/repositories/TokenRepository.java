@@ -1,20 +1,41 @@
 package com.test.challenge.repositories;
 
 import com.test.challenge.entities.Token;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TokenRepository extends JpaRepository<Token, Integer> {
+    @Transactional
+    @Modifying
     @Query("""
-        select t from Token t inner join User u on t.user.id = u.id
+        update Token t set t.loggedOut = true
         where t.user.id = :userId and t.loggedOut = false
     """)
-    List<Token> findAllTokensByUser(Long userId);
+    int revokeAllByUserId(Long userId);
 
-    Optional<Token> findByToken(String token);
+    @Transactional
+    @Modifying
+    @Query("update Token t set t.loggedOut = true where t.tokenHash = :tokenHash")
+    int revokeByTokenHash(byte[] tokenHash);
+
+    Optional<Token> findByTokenHash(byte[] tokenHash);
+
+    @Query("select t.id from Token t where t.expiresAt < :now")
+    List<Integer> findExpiredIds(Instant now, Pageable pageable);
+
+    @Query("select t.id from Token t where t.loggedOut = true")
+    List<Integer> findLoggedOutIds(Pageable pageable);
+
+    @Modifying
+    @Query("delete from Token t where t.id in :ids")
+    int deleteAllByIdIn(List<Integer> ids);
 }
@@ -1,21 +1,45 @@
 package com.test.challenge.repositories;
 
 
+import com.test.challenge.dto.AuthDto.UserSummaryDTO;
 import com.test.challenge.entities.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserSearchRepository {
     Optional<User> findByUsernameOrEmail(String username, String email);
     Optional<User> findByUsername(String username);
 
     Boolean existsByUsername(String username);
 
-    @Query("SELECT u FROM User u JOIN Token t ON u.id = t.user.id WHERE t.loggedOut = true")
-    List<User> findUsersLoggedOut();
+    /**
+     * Users already holding one of the given usernames or emails, so that a whole import chunk is
+     * checked for conflicts with a single query.
+     */
+    List<UserKeys> findByUsernameInOrEmailIn(Collection<String> usernames, Collection<String> emails);
+
+    /**
+     * Users with at least one logged-out token, after {@code afterId} in id order. The {@code EXISTS}
+     * keeps each user once however many tokens match, and the id condition lets the primary key index
+     * seek straight to the page instead of skipping an offset.
+     */
+    @Query("SELECT new com.test.challenge.dto.AuthDto.UserSummaryDTO(u.id, u.firstName, u.lastName, u.username, "
+            + "u.email, u.city, u.country, u.company, u.jobPosition, u.role) "
+            + "FROM User u WHERE u.id > :afterId "
+            + "AND EXISTS (SELECT 1 FROM Token t WHERE t.user = u AND t.loggedOut = true) "
+            + "ORDER BY u.id")
+    List<UserSummaryDTO> findLoggedOutSummaries(long afterId, Pageable pageable);
+
+    interface UserKeys {
+        String getUsername();
+
+        String getEmail();
+    }
 }
@@ -0,0 +1,17 @@
+package com.test.challenge.repositories;
+
+import com.test.challenge.dto.AuthDto.UserSearchDTO;
+import com.test.challenge.dto.AuthDto.UserSummaryDTO;
+
+import java.util.List;
+
+/**
+ * User search, kept apart from {@link UserRepository} because its query is assembled from whichever
+ * filters are given rather than declared once.
+ */
+public interface UserSearchRepository {
+    /**
+     * Up to {@code limit} users matching {@code filter}, after {@code afterId} in id order.
+     */
+    List<UserSummaryDTO> search(UserSearchDTO filter, long afterId, int limit);
+}
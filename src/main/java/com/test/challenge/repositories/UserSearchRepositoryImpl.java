@@ -0,0 +1,58 @@
+package com.test.challenge.repositories;
+
+import com.test.challenge.dto.AuthDto.UserSearchDTO;
+import com.test.challenge.dto.AuthDto.UserSummaryDTO;
+import com.test.challenge.entities.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Only the given filters become conditions, each an equality on a column that leads one of the
+ * {@code (column, id)} indexes of {@link User}. The database seeks into the index of one filter at
+ * {@code afterId} and reads it in id order, so a page costs about {@code limit} rows, divided by the
+ * selectivity of any further filters, however large the table is.
+ */
+class UserSearchRepositoryImpl implements UserSearchRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<UserSummaryDTO> search(UserSearchDTO filter, long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserSummaryDTO> query = cb.createQuery(UserSummaryDTO.class);
+        Root<User> user = query.from(User.class);
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.greaterThan(user.get("id"), afterId));
+        addEqual(cb, user, "country", filter.getCountry(), where);
+        addEqual(cb, user, "company", filter.getCompany(), where);
+        addEqual(cb, user, "city", filter.getCity(), where);
+        addEqual(cb, user, "role", filter.getRole(), where);
+        addEqual(cb, user, "jobPosition", filter.getJobPosition(), where);
+
+        query.select(cb.construct(UserSummaryDTO.class,
+                        user.get("id"), user.get("firstName"), user.get("lastName"), user.get("username"),
+                        user.get("email"), user.get("city"), user.get("country"), user.get("company"),
+                        user.get("jobPosition"), user.get("role")))
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(cb.asc(user.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private static void addEqual(CriteriaBuilder cb, Root<User> user, String attribute, Object value,
+                                 List<Predicate> where) {
+        if (value == null || value instanceof String text && text.isBlank()) {
+            return;
+        }
+        where.add(cb.equal(user.get(attribute), value));
+    }
+}
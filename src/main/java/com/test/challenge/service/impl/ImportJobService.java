@@ -0,0 +1,205 @@
+package com.test.challenge.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.test.challenge.config.ServiceOverloadedException;
+import com.test.challenge.dto.AuthDto.BatchResponseDTO;
+import com.test.challenge.dto.AuthDto.ImportJobDTO;
+import com.test.challenge.enums.ImportJobStatus;
+import com.test.challenge.enums.UserDataFormat;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs user imports in the background so that the upload request returns as soon as the file is stored.
+ * At most {@code max-concurrent} imports run at once, counting the synchronous ones of
+ * {@link #importNow}; further uploads are refused with a retry hint rather than queued, so that imports
+ * cannot take the connections and CPU the interactive endpoints need.
+ */
+@Slf4j
+@Service
+public class ImportJobService {
+    private final UserImportService userImportService;
+    private final ExecutorService runners;
+    private final Semaphore slots;
+    private final Duration retryAfter;
+    private final Map<String, ImportJob> running = new ConcurrentHashMap<>();
+    private final Cache<String, ImportJob> finished;
+
+    /**
+     * @param maxConcurrent jobs running at once, each using the shared import worker pools
+     * @param retention     how long a finished job stays queryable
+     * @param retryAfter    suggested wait for clients turned away because all job slots are busy
+     */
+    public ImportJobService(UserImportService userImportService,
+                            @Value("${users.import.jobs.max-concurrent:2}") int maxConcurrent,
+                            @Value("${users.import.jobs.retention:PT1H}") Duration retention,
+                            @Value("${users.import.jobs.retry-after:PT30S}") Duration retryAfter) {
+        this.userImportService = userImportService;
+        this.runners = Executors.newFixedThreadPool(maxConcurrent, new CustomizableThreadFactory("user-import-job-"));
+        this.slots = new Semaphore(maxConcurrent);
+        this.retryAfter = retryAfter;
+        this.finished = Caffeine.newBuilder()
+                .expireAfterWrite(retention)
+                .build();
+    }
+
+    /**
+     * Copies the upload to a temporary file, since the multipart data is gone once the request ends,
+     * and starts importing it.
+     *
+     * @throws ServiceOverloadedException if {@code max-concurrent} jobs are already running
+     */
+    public ImportJobDTO submit(MultipartFile file, UserDataFormat format) throws IOException {
+        if (!slots.tryAcquire()) {
+            throw new ServiceOverloadedException("Too many user imports are running, retry later", retryAfter);
+        }
+        Path upload;
+        try {
+            upload = Files.createTempFile("user-import-", ".upload");
+            try {
+                file.transferTo(upload);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(upload);
+                throw e;
+            }
+        } catch (IOException | RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString());
+        running.put(job.id, job);
+        runners.execute(() -> run(job, upload, format));
+        return job.toDTO();
+    }
+
+    /**
+     * Imports on the calling thread, in one of the same slots as the background jobs.
+     *
+     * @throws ServiceOverloadedException if {@code max-concurrent} imports are already running
+     */
+    public BatchResponseDTO importNow(InputStream in, UserDataFormat format) {
+        if (!slots.tryAcquire()) {
+            throw new ServiceOverloadedException("Too many user imports are running, retry later", retryAfter);
+        }
+        try {
+            return userImportService.importUsers(in, format);
+        } finally {
+            slots.release();
+        }
+    }
+
+    public Optional<ImportJobDTO> find(String id) {
+        ImportJob job = running.get(id);
+        if (job == null) {
+            job = finished.getIfPresent(id);
+        }
+        return Optional.ofNullable(job).map(ImportJob::toDTO);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runners.shutdownNow();
+    }
+
+    private void run(ImportJob job, Path upload, UserDataFormat format) {
+        job.startedAt = Instant.now();
+        job.status = ImportJobStatus.RUNNING;
+        try (InputStream in = Files.newInputStream(upload)) {
+            BatchResponseDTO result = userImportService.importUsers(in, format, job::chunkCompleted);
+            if (result.getFailedToInsertRows() < 0) {
+                job.error = "The upload could not be read past row " + job.processed();
+                job.status = ImportJobStatus.FAILED;
+            } else {
+                job.status = ImportJobStatus.COMPLETED;
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("User import job {} failed", job.id, e);
+            job.error = e.getMessage();
+            job.status = ImportJobStatus.FAILED;
+        } finally {
+            try {
+                Files.deleteIfExists(upload);
+            } catch (IOException e) {
+                log.warn("Could not delete import upload {}", upload, e);
+            }
+            // The slot is free before the job reports itself finished, so a client may submit again right away.
+            slots.release();
+            job.finishedAt = Instant.now();
+            finished.put(job.id, job);
+            running.remove(job.id);
+        }
+    }
+
+    /**
+     * Mutable state of one job, updated by its runner thread and the import workers and read by status requests.
+     */
+    private static final class ImportJob {
+        private final String id;
+        private final Instant submittedAt = Instant.now();
+        private final AtomicLong inserted = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong duplicates = new AtomicLong();
+        private volatile ImportJobStatus status = ImportJobStatus.QUEUED;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        ImportJob(String id) {
+            this.id = id;
+        }
+
+        void chunkCompleted(int insertedRows, int failedRows, int duplicateRows) {
+            inserted.addAndGet(insertedRows);
+            failed.addAndGet(failedRows);
+            duplicates.addAndGet(duplicateRows);
+        }
+
+        long processed() {
+            return inserted.get() + failed.get();
+        }
+
+        ImportJobDTO toDTO() {
+            long processed = processed();
+            double rowsPerSecond = 0;
+            if (startedAt != null) {
+                Instant end = finishedAt != null ? finishedAt : Instant.now();
+                long millis = Duration.between(startedAt, end).toMillis();
+                rowsPerSecond = millis > 0 ? processed * 1000.0 / millis : 0;
+            }
+            return ImportJobDTO.builder()
+                    .id(id)
+                    .status(status)
+                    .processedRows(processed)
+                    .insertedRows(inserted.get())
+                    .failedRows(failed.get())
+                    .duplicateRows(duplicates.get())
+                    .rowsPerSecond(rowsPerSecond)
+                    .submittedAt(submittedAt)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.test.challenge.service.impl;
+
+import java.time.Instant;
+
+/**
+ * A JWT just signed by {@link JwtService#issueToken}, with the expiry it was given, so that the issuer
+ * does not have to parse its own token back to store it.
+ */
+public record IssuedToken(String token, Instant expiresAt) {
+}
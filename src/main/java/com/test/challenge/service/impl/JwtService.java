@@ -1,49 +1,103 @@
 package com.test.challenge.service.impl;
 
+import com.test.challenge.entities.Token;
 import com.test.challenge.entities.User;
 import com.test.challenge.repositories.TokenRepository;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Date;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
     private final String SECRET_KEY = "1a1f7c4280331b2687e64f772035acdc298c7d44237f7ab2babe26b4c44796fe";
-    private final TokenRepository tokenRepository;
+    public static final String ROLE_CLAIM = "role";
+    public static final String USER_VERSION_CLAIM = "ver";
 
-    public JwtService(TokenRepository tokenRepository) {
+    private final TokenRepository tokenRepository;
+    private final TokenRevocationCache revocationCache;
+    // The key and the parser are immutable and thread-safe, so they are built once instead of per token.
+    private final SecretKey signingKey;
+    private final JwtParser jwtParser;
+    private final long expirationMillis;
+
+    public JwtService(TokenRepository tokenRepository,
+                      TokenRevocationCache revocationCache,
+                      @Value("${security.jwt.expiration:PT24H}") Duration expiration) {
         this.tokenRepository = tokenRepository;
+        this.revocationCache = revocationCache;
+        this.expirationMillis = expiration.toMillis();
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64URL.decode(SECRET_KEY));
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
     }
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    /**
+     * Parses the token and checks its signature exactly once.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, badly signed or expired
+     */
+    public VerifiedToken verify(String token) {
+        Claims claims = extractAllClaims(token);
+        return new VerifiedToken(token, claims.getSubject(), claims.getIssuedAt(), claims.getExpiration(),
+                claims.get(ROLE_CLAIM, String.class), claims.get(USER_VERSION_CLAIM, Long.class));
     }
 
+    public String extractUsername(String token) {
+        return verify(token).getSubject();
+    }
 
-    public boolean isValid(String token, UserDetails user) {
-        String username = extractUsername(token);
+    /**
+     * @return the expiry of a correctly signed token, or {@code null} if it cannot be verified
+     */
+    public Date extractExpirationOrNull(String token) {
+        try {
+            return verify(token).getExpiration();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
 
-        boolean validToken = tokenRepository
-                .findByToken(token)
-                .map(t -> !t.isLoggedOut())
-                .orElse(false);
 
-        return (username.equals(user.getUsername())) && !isTokenExpired(token) && validToken;
+    public boolean isValid(String token, UserDetails user) {
+        return isValid(verify(token), user);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isValid(VerifiedToken token, UserDetails user) {
+        if (!token.getSubject().equals(user.getUsername()) || token.isExpired()) {
+            return false;
+        }
+
+        return revocationCache
+                .isLoggedOut(token, t -> tokenRepository.findByTokenHash(hashToken(t)).map(Token::isLoggedOut))
+                .map(loggedOut -> !loggedOut)
+                .orElse(false);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    /**
+     * Digest under which a token is stored, so the token table keeps fixed-size, indexable keys.
+     */
+    public byte[] hashToken(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> resolver) {
@@ -52,29 +106,32 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .verifyWith(getSigninKey())
-                .build()
+        return jwtParser
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
 
     public String generateToken(User user) {
+        return issueToken(user).token();
+    }
+
+    public IssuedToken issueToken(User user) {
+        long now = System.currentTimeMillis();
+        // The exp claim has second precision; truncating keeps the returned expiry equal to it.
+        Date expiration = new Date((now + expirationMillis) / 1000 * 1000);
         String token = Jwts
                 .builder()
+                // A unique id keeps two logins within the same second from producing the same token hash.
+                .id(UUID.randomUUID().toString())
                 .subject(user.getUsername())
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + 24*60*60*1000 ))
-                .signWith(getSigninKey())
+                .claim(ROLE_CLAIM, user.getRole() == null ? null : user.getRole().name())
+                .claim(USER_VERSION_CLAIM, user.getVersion())
+                .issuedAt(new Date(now))
+                .expiration(expiration)
+                .signWith(signingKey)
                 .compact();
 
-        return token;
-    }
-
-    private SecretKey getSigninKey() {
-        byte[] keyBytes = Decoders.BASE64URL.decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return new IssuedToken(token, expiration.toInstant());
     }
 }
@@ -0,0 +1,76 @@
+package com.test.challenge.service.impl;
+
+import com.test.challenge.config.QueryCounter;
+import com.test.challenge.config.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs credential verification, which is dominated by BCrypt, on a pool sized to the cores with a
+ * bounded queue. Request threads are released while a login waits, and a login storm can occupy at most
+ * this pool, so other requests keep their threads and CPU. Logins beyond the queue fail fast.
+ */
+@Component
+public class LoginExecutor {
+    private final ThreadPoolExecutor executor;
+    private final Duration retryAfter;
+    private final Counter rejected;
+    private final QueryCounter queryCounter;
+
+    /**
+     * @param threads       verification threads, {@code 0} for one per core
+     * @param queueCapacity logins allowed to wait for a thread before new ones are refused, may be {@code 0}
+     * @param retryAfter    suggested wait for refused logins
+     */
+    public LoginExecutor(@Value("${security.login.threads:0}") int threads,
+                         @Value("${security.login.queue-capacity:64}") int queueCapacity,
+                         @Value("${security.login.retry-after:PT2S}") Duration retryAfter,
+                         MeterRegistry meterRegistry,
+                         QueryCounter queryCounter) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>(),
+                new CustomizableThreadFactory("login-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.retryAfter = retryAfter;
+        this.queryCounter = queryCounter;
+        this.rejected = Counter.builder("auth.login.rejected")
+                .description("Logins refused because the verification queue was full")
+                .register(meterRegistry);
+        Gauge.builder("auth.login.queue", executor, e -> e.getQueue().size())
+                .description("Logins waiting for a verification thread")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @throws ServiceOverloadedException if every thread is busy and the queue is full
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            // The statements of a login still count towards its request in http.server.requests.queries.
+            return CompletableFuture.supplyAsync(queryCounter.propagate(task), executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceOverloadedException("Too many logins in progress, retry later", retryAfter);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
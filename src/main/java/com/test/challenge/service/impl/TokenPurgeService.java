@@ -0,0 +1,80 @@
+package com.test.challenge.service.impl;
+
+import com.test.challenge.repositories.TokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Deletes expired and logged-out tokens so the token table does not grow with every login.
+ * Rows are removed in batches, each in its own short transaction, to keep lock times bounded.
+ */
+@Slf4j
+@Service
+public class TokenPurgeService {
+    private final TokenRepository tokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Counter removedRows;
+    private final Timer purgeTimer;
+
+    public TokenPurgeService(TokenRepository tokenRepository,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${security.token.purge.batch-size:1000}") int batchSize,
+                             MeterRegistry meterRegistry) {
+        this.tokenRepository = tokenRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.removedRows = Counter.builder("auth.tokens.purged")
+                .description("Expired and logged-out tokens deleted by the purge")
+                .register(meterRegistry);
+        this.purgeTimer = Timer.builder("auth.tokens.purge")
+                .description("Purge passes over the token table")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${security.token.purge.interval:PT10M}",
+               fixedDelayString = "${security.token.purge.interval:PT10M}")
+    public PurgeResult purge() {
+        long start = System.nanoTime();
+        Instant now = Instant.now();
+        Pageable batch = PageRequest.of(0, batchSize);
+
+        long removed = deleteInBatches(() -> tokenRepository.findExpiredIds(now, batch))
+                + deleteInBatches(() -> tokenRepository.findLoggedOutIds(batch));
+
+        PurgeResult result = new PurgeResult(removed, Duration.ofNanos(System.nanoTime() - start));
+        removedRows.increment(removed);
+        purgeTimer.record(result.duration());
+        log.info("Token purge removed {} rows in {} ms", removed, result.duration().toMillis());
+        return result;
+    }
+
+    private long deleteInBatches(Supplier<List<Integer>> nextBatch) {
+        long removed = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> {
+                List<Integer> ids = nextBatch.get();
+                return ids.isEmpty() ? 0 : tokenRepository.deleteAllByIdIn(ids);
+            });
+            removed += deleted;
+        } while (deleted == batchSize);
+        return removed;
+    }
+
+    public record PurgeResult(long removed, Duration duration) {
+    }
+}
@@ -0,0 +1,162 @@
+package com.test.challenge.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Remembers whether a stored token is logged out so that {@link JwtService#isValid} only hits the
+ * token table on a miss. Each entry lives until the JWT itself expires, after which the token is
+ * rejected by its signature check anyway.
+ *
+ * <p>Cached tokens that are still live are indexed by username, so revoking every token of a user
+ * drops exactly those entries. Writers must call the revoke methods after the database change is
+ * visible; a reader whose load overlapped a revocation drops the entry it cached, since it may have
+ * read the state from before the change.
+ */
+@Component
+public class TokenRevocationCache {
+    private final Cache<String, Entry> tokens;
+    private final Map<String, Set<String>> liveTokensByUser = new ConcurrentHashMap<>();
+    private final AtomicLong revocations = new AtomicLong();
+
+    public TokenRevocationCache(@Value("${security.jwt.revocation-cache.maximum-size:100000}") long maximumSize,
+                                MeterRegistry meterRegistry) {
+        // The eviction listener runs inside the eviction, so the index never misses a cached live token.
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UntilTokenExpires())
+                .evictionListener((String token, Entry entry, RemovalCause cause) -> unindex(token, entry))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tokens, "tokens");
+    }
+
+    /**
+     * Returns the logged-out flag of a verified token, calling {@code loader} on a miss.
+     *
+     * @param loader reads the flag from the database, empty when the token is not stored
+     * @return the flag, or empty when the token is unknown
+     */
+    public Optional<Boolean> isLoggedOut(VerifiedToken token, Function<String, Optional<Boolean>> loader) {
+        Entry entry = tokens.getIfPresent(token.getToken());
+        if (entry != null) {
+            return Optional.of(entry.loggedOut());
+        }
+
+        long revocationsBefore = revocations.get();
+        Optional<Boolean> loggedOut = loader.apply(token.getToken());
+        loggedOut.ifPresent(flag -> {
+            Entry loaded = new Entry(flag, token.getExpiration().getTime(), token.getSubject());
+            put(token.getToken(), loaded);
+            if (revocations.get() != revocationsBefore) {
+                remove(token.getToken(), cached -> cached == loaded);
+            }
+        });
+        return loggedOut;
+    }
+
+    /**
+     * Marks a single token as logged out.
+     */
+    public void revoke(String token, Date expiration) {
+        if (expiration == null) {
+            remove(token, cached -> true);
+            return;
+        }
+        put(token, new Entry(true, expiration.getTime(), null));
+    }
+
+    /**
+     * Forces every cached token of the user to be read again from the database.
+     */
+    public void revokeAllForUser(String username) {
+        revocations.incrementAndGet();
+        Set<String> live = liveTokensByUser.get(username);
+        if (live != null) {
+            live.forEach(token -> remove(token, cached -> !cached.loggedOut()));
+        }
+    }
+
+    private void put(String token, Entry entry) {
+        if (entry.expiresAtMillis() <= System.currentTimeMillis()) {
+            return;
+        }
+        tokens.asMap().compute(token, (key, current) -> {
+            // A token never comes back once logged out, so a late reader must not overwrite that state.
+            if (current != null && current.loggedOut()) {
+                return current;
+            }
+            if (current != null) {
+                unindex(key, current);
+            }
+            if (!entry.loggedOut()) {
+                liveTokensByUser.computeIfAbsent(entry.username(), user -> ConcurrentHashMap.newKeySet()).add(key);
+            }
+            return entry;
+        });
+    }
+
+    private void remove(String token, Predicate<Entry> condition) {
+        tokens.asMap().computeIfPresent(token, (key, current) -> {
+            if (!condition.test(current)) {
+                return current;
+            }
+            unindex(key, current);
+            return null;
+        });
+    }
+
+    private void unindex(String token, Entry entry) {
+        if (entry.loggedOut()) {
+            return;
+        }
+        liveTokensByUser.computeIfPresent(entry.username(), (user, live) -> {
+            live.remove(token);
+            return live.isEmpty() ? null : live;
+        });
+    }
+
+    /**
+     * @param username owner of a live token, {@code null} for logged-out entries, which are never indexed
+     */
+    private record Entry(boolean loggedOut, long expiresAtMillis, String username) {
+    }
+
+    private static class UntilTokenExpires implements Expiry<String, Entry> {
+        @Override
+        public long expireAfterCreate(String token, Entry entry, long currentTime) {
+            return remaining(entry);
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, Entry entry, long currentTime, long currentDuration) {
+            return remaining(entry);
+        }
+
+        @Override
+        public long expireAfterRead(String token, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private long remaining(Entry entry) {
+            long millis = entry.expiresAtMillis() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(millis, 0));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.test.challenge.service.impl;
+
+import com.test.challenge.entities.User;
+import com.test.challenge.repositories.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Inserts imported users as JDBC batches, one transaction per chunk. The persistence context is
+ * flushed and cleared at the end of each chunk so it never holds more than one chunk of entities.
+ */
+@Slf4j
+@Component
+public class UserBatchWriter {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+
+    public UserBatchWriter(TransactionTemplate transactionTemplate, UserRepository userRepository) {
+        this.transactionTemplate = transactionTemplate;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Drops the users whose username or email is already taken, with one query for the whole chunk
+     * instead of a failed insert per conflict. Rows taken concurrently are still caught by {@link #insert}.
+     */
+    public List<User> withoutExisting(List<User> users) {
+        Set<String> usernames = keys(users, User::getUsername);
+        Set<String> emails = keys(users, User::getEmail);
+        if (usernames.isEmpty() && emails.isEmpty()) {
+            return users;
+        }
+        List<UserRepository.UserKeys> taken = userRepository.findByUsernameInOrEmailIn(usernames, emails);
+        if (taken.isEmpty()) {
+            return users;
+        }
+        Set<String> takenUsernames = new HashSet<>();
+        Set<String> takenEmails = new HashSet<>();
+        for (UserRepository.UserKeys keys : taken) {
+            addIfPresent(takenUsernames, keys.getUsername());
+            addIfPresent(takenEmails, keys.getEmail());
+        }
+        return users.stream()
+                .filter(user -> !isTaken(takenUsernames, user.getUsername()) && !isTaken(takenEmails, user.getEmail()))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * Imports always create new rows, so ids and versions coming from the file are ignored.
+     * If the chunk fails as a whole, it is retried row by row to keep the valid rows.
+     *
+     * @return the number of inserted rows
+     */
+    public int insert(List<User> users) {
+        users.forEach(this::resetIdentity);
+        try {
+            return transactionTemplate.execute(status -> {
+                users.forEach(entityManager::persist);
+                entityManager.flush();
+                entityManager.clear();
+                return users.size();
+            });
+        } catch (RuntimeException e) {
+            log.debug("Batch insert of {} users failed, retrying row by row", users.size(), e);
+            return insertOneByOne(users);
+        }
+    }
+
+    private int insertOneByOne(List<User> users) {
+        int inserted = 0;
+        for (User user : users) {
+            resetIdentity(user);
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    entityManager.persist(user);
+                    entityManager.flush();
+                    entityManager.clear();
+                });
+                inserted++;
+            } catch (RuntimeException e) {
+                log.debug("Could not insert user {}", user.getUsername(), e);
+            }
+        }
+        return inserted;
+    }
+
+    private static Set<String> keys(List<User> users, Function<User, String> key) {
+        Set<String> keys = new HashSet<>();
+        for (User user : users) {
+            addIfPresent(keys, key.apply(user));
+        }
+        return keys;
+    }
+
+    // Missing values never conflict: the unique constraints allow any number of nulls.
+    private static void addIfPresent(Set<String> keys, String value) {
+        if (value != null) {
+            keys.add(value);
+        }
+    }
+
+    private static boolean isTaken(Set<String> taken, String value) {
+        return value != null && taken.contains(value);
+    }
+
+    private void resetIdentity(User user) {
+        user.setId(null);
+        user.setVersion(null);
+    }
+}
@@ -0,0 +1,49 @@
+package com.test.challenge.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.test.challenge.entities.User;
+import com.test.challenge.repositories.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Read-through cache of users by username, shared by the security filter, login and the user lookups.
+ * Unknown usernames are not cached. Anything that writes users must invalidate the usernames it touched.
+ */
+@Component
+public class UserCache {
+    private final UserRepository repository;
+    private final Cache<String, User> cache;
+
+    public UserCache(UserRepository repository,
+                     @Value("${users.cache.maximum-size:10000}") long maximumSize,
+                     @Value("${users.cache.ttl:PT5M}") Duration ttl,
+                     MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users");
+    }
+
+    public Optional<User> findByUsername(String username) {
+        return Optional.ofNullable(cache.get(username, key -> repository.findByUsername(key).orElse(null)));
+    }
+
+    public void invalidate(String username) {
+        cache.invalidate(username);
+    }
+
+    public void invalidateAll(Collection<String> usernames) {
+        cache.invalidateAll(usernames);
+    }
+}
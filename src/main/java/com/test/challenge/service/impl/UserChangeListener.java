@@ -0,0 +1,24 @@
+package com.test.challenge.service.impl;
+
+import com.test.challenge.entities.User;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Entity listener of {@link User}, created by Hibernate through the Spring context. It only publishes
+ * the change; {@link UserChangeRevoker} acts on it once the update has committed.
+ */
+@Component
+public class UserChangeListener {
+    private final ApplicationEventPublisher eventPublisher;
+
+    public UserChangeListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostUpdate
+    public void userUpdated(User user) {
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getUsername()));
+    }
+}
@@ -0,0 +1,41 @@
+package com.test.challenge.service.impl;
+
+import com.test.challenge.repositories.TokenRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Logs a user out everywhere once a change to the user has committed. Tokens carry the role and
+ * version they were issued with, and the stateless principal trusts those claims, so no token may
+ * outlive a change of the row. A rolled back change keeps the tokens.
+ */
+@Component
+public class UserChangeRevoker {
+    private final TokenRepository tokenRepository;
+    private final TokenRevocationCache revocationCache;
+    private final UserCache userCache;
+    private final TransactionTemplate revokeTransaction;
+
+    public UserChangeRevoker(TokenRepository tokenRepository, TokenRevocationCache revocationCache, UserCache userCache,
+                             PlatformTransactionManager transactionManager) {
+        this.tokenRepository = tokenRepository;
+        this.revocationCache = revocationCache;
+        this.userCache = userCache;
+        // The committed transaction is still bound while after-commit listeners run, so the revoke needs its own.
+        this.revokeTransaction = new TransactionTemplate(transactionManager);
+        this.revokeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void userChanged(UserChangedEvent event) {
+        userCache.invalidate(event.username());
+        Integer revoked = revokeTransaction.execute(status -> tokenRepository.revokeAllByUserId(event.userId()));
+        // The caches may only forget the tokens once the revoke is visible, or a miss reloads them as live.
+        if (revoked != null && revoked > 0) {
+            revocationCache.revokeAllForUser(event.username());
+        }
+    }
+}
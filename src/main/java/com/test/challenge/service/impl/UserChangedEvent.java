@@ -0,0 +1,7 @@
+package com.test.challenge.service.impl;
+
+/**
+ * Published by {@link UserChangeListener} whenever a user row is updated.
+ */
+public record UserChangedEvent(Long userId, String username) {
+}
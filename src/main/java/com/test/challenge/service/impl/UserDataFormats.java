@@ -0,0 +1,114 @@
+package com.test.challenge.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.test.challenge.entities.User;
+import com.test.challenge.enums.UserDataFormat;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streaming readers and writers of users in every {@link UserDataFormat}, optionally gzip-compressed.
+ * Readers detect gzip and the format from the first bytes of the input, so uploads need no metadata.
+ */
+@Component
+public class UserDataFormats {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String[] CSV_COLUMNS = {
+            "firstName", "lastName", "birthDate", "city", "country", "avatar", "company",
+            "jobPosition", "mobile", "username", "email", "password", "role"
+    };
+
+    private final ObjectReader jsonReader;
+    private final ObjectWriter jsonWriter;
+    private final ObjectReader csvReader;
+    private final ObjectWriter csvWriter;
+
+    public UserDataFormats(ObjectMapper objectMapper) {
+        this.jsonReader = objectMapper.readerFor(User.class);
+        this.jsonWriter = objectMapper.writerFor(User.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        CsvMapper csvMapper = CsvMapper.builder()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+                .enable(JsonGenerator.Feature.IGNORE_UNKNOWN)
+                .build();
+        CsvSchema.Builder schema = CsvSchema.builder();
+        for (String column : CSV_COLUMNS) {
+            schema.addColumn(column);
+        }
+        this.csvReader = csvMapper.readerFor(User.class).with(CsvSchema.emptySchema().withHeader());
+        this.csvWriter = csvMapper.writerFor(User.class)
+                .with(schema.build().withHeader())
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Opens a writer that appends users one by one. Closing it completes the document but leaves
+     * {@code out} open.
+     */
+    public SequenceWriter openWriter(UserDataFormat format, OutputStream out) throws IOException {
+        return switch (format) {
+            case JSON -> jsonWriter.writeValuesAsArray(out);
+            case NDJSON -> jsonWriter.withRootValueSeparator("\n").writeValues(out);
+            case CSV -> csvWriter.writeValues(out);
+        };
+    }
+
+    /**
+     * Opens a reader over {@code in}, which may be gzip-compressed.
+     *
+     * @param format the format of the data, or {@code null} to detect it
+     */
+    public MappingIterator<User> openReader(InputStream in, UserDataFormat format) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in, BUFFER_SIZE);
+        if (isGzip(buffered)) {
+            buffered = new BufferedInputStream(new GZIPInputStream(buffered, BUFFER_SIZE), BUFFER_SIZE);
+        }
+        UserDataFormat effectiveFormat = format != null ? format : detectFormat(buffered);
+        // A JSON reader iterates the elements of a top-level array as well as a stream of objects.
+        return effectiveFormat == UserDataFormat.CSV
+                ? csvReader.readValues(buffered)
+                : jsonReader.readValues(buffered);
+    }
+
+    private static boolean isGzip(BufferedInputStream in) throws IOException {
+        in.mark(2);
+        int first = in.read();
+        int second = in.read();
+        in.reset();
+        return first == 0x1f && second == 0x8b;
+    }
+
+    private static UserDataFormat detectFormat(BufferedInputStream in) throws IOException {
+        in.mark(BUFFER_SIZE);
+        try {
+            int c;
+            do {
+                c = in.read();
+            } while (c != -1 && (Character.isWhitespace(c) || c == 0xEF || c == 0xBB || c == 0xBF));
+            if (c == '[') {
+                return UserDataFormat.JSON;
+            }
+            return c == '{' ? UserDataFormat.NDJSON : UserDataFormat.CSV;
+        } finally {
+            in.reset();
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.test.challenge.service.impl;
 
-import com.test.challenge.repositories.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -9,15 +8,15 @@ import org.springframework.stereotype.Service;
 
 @Service
 public class UserDetailsServiceImp implements UserDetailsService {
-    private final UserRepository repository;
+    private final UserCache userCache;
 
     @Autowired
-    public UserDetailsServiceImp(UserRepository repository) {
-        this.repository = repository;
+    public UserDetailsServiceImp(UserCache userCache) {
+        this.userCache = userCache;
     }
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return repository.findByUsername(username)
+        return userCache.findByUsername(username)
                 .orElseThrow(()-> new UsernameNotFoundException("User not found"));
     }
 }
@@ -0,0 +1,102 @@
+package com.test.challenge.service.impl;
+
+import com.github.javafaker.service.FakeValuesService;
+import com.github.javafaker.service.RandomService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * JavaFaker's English dictionaries for the user fields, loaded once into plain arrays.
+ * Name variants used in e-mail addresses are precomputed so that building a user only indexes arrays.
+ */
+public final class UserDictionary {
+    private static final String AVATAR_URL = "https://s3.amazonaws.com/uifaces/faces/twitter/";
+    private static final Pattern REFERENCE = Pattern.compile("#\\{([A-Za-z_.]+)}");
+
+    final String[] firstNames;
+    final String[] lastNames;
+    final String[] emailFirstNames;
+    final String[] emailLastNames;
+    final String[] cityPrefixes;
+    final String[] citySuffixes;
+    final String[] countryCodes;
+    final String[] avatars;
+    final String[] companySuffixes;
+    final String[] jobSeniorities;
+    final String[] jobFields;
+    final String[] jobPositions;
+    final String[] emailDomains;
+    final char[][] cellPhoneFormats;
+
+    private UserDictionary() {
+        FakeValuesService values = new FakeValuesService(Locale.ENGLISH, new RandomService());
+        firstNames = fetch(values, "name.first_name");
+        lastNames = fetch(values, "name.last_name");
+        emailFirstNames = toEmailPart(firstNames);
+        emailLastNames = toEmailPart(lastNames);
+        cityPrefixes = fetch(values, "address.city_prefix");
+        citySuffixes = fetch(values, "address.city_suffix");
+        countryCodes = fetch(values, "address.country_code");
+        avatars = fetch(values, "internet.avatar");
+        for (int i = 0; i < avatars.length; i++) {
+            avatars[i] = AVATAR_URL + avatars[i];
+        }
+        companySuffixes = fetch(values, "company.suffix");
+        jobSeniorities = fetch(values, "job.seniority");
+        jobFields = fetch(values, "job.field");
+        jobPositions = fetch(values, "job.position");
+        emailDomains = fetch(values, "internet.free_email");
+        String[] formats = fetch(values, "cell_phone.formats");
+        cellPhoneFormats = new char[formats.length][];
+        for (int i = 0; i < formats.length; i++) {
+            cellPhoneFormats[i] = formats[i].toCharArray();
+        }
+    }
+
+    public static UserDictionary getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static String[] fetch(FakeValuesService values, String key) {
+        List<String> entries = new ArrayList<>();
+        collect(values, key, entries);
+        return entries.toArray(String[]::new);
+    }
+
+    /**
+     * Some dictionaries only list other dictionaries, e.g. {@code name.first_name} is
+     * {@code #{female_first_name}} and {@code #{male_first_name}}; those references are expanded in place.
+     */
+    private static void collect(FakeValuesService values, String key, List<String> entries) {
+        Object value = values.fetchObject(key);
+        if (!(value instanceof List<?> list) || list.isEmpty()) {
+            throw new IllegalStateException("Faker dictionary " + key + " is missing");
+        }
+        String namespace = key.substring(0, key.indexOf('.') + 1);
+        for (Object entry : list) {
+            Matcher reference = REFERENCE.matcher(String.valueOf(entry));
+            if (reference.matches()) {
+                String referenced = reference.group(1);
+                collect(values, referenced.contains(".") ? referenced.toLowerCase(Locale.ROOT) : namespace + referenced, entries);
+            } else {
+                entries.add(String.valueOf(entry));
+            }
+        }
+    }
+
+    private static String[] toEmailPart(String[] names) {
+        String[] parts = new String[names.length];
+        for (int i = 0; i < names.length; i++) {
+            parts[i] = names[i].replaceAll("[^A-Za-z0-9]", "").toLowerCase(Locale.ROOT);
+        }
+        return parts;
+    }
+
+    private static class Holder {
+        private static final UserDictionary INSTANCE = new UserDictionary();
+    }
+}
@@ -0,0 +1,256 @@
+package com.test.challenge.service.impl;
+
+import com.github.javafaker.Faker;
+import com.test.challenge.entities.User;
+import com.test.challenge.enums.GeneratorEngine;
+import com.test.challenge.enums.Role;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generates random users in parallel while keeping the output reproducible.
+ *
+ * <p>The requested users are cut into fixed-size blocks. Every block is generated from its own
+ * random seed, derived from the request seed, the shard and the block index, by whichever worker
+ * picks it up. Blocks are handed to the consumer in block order, so the same seed and shard always
+ * give the same users in the same order, whatever the number of threads. Different shards are seeded
+ * independently and can be generated on different nodes; nothing keeps their usernames and emails
+ * apart, and the import drops rows that repeat ones it already holds.
+ *
+ * <p>Two engines build the users: {@link GeneratorEngine#FAKER} goes through JavaFaker's expression
+ * resolution for every field, {@link GeneratorEngine#DICTIONARY} picks the same kind of values straight
+ * from {@link UserDictionary} and is much cheaper per user.
+ */
+@Component
+public class UserGenerator {
+    private static final char[] PASSWORD_CHARACTERS =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789".toCharArray();
+    // Fixed bounds instead of Faker's birthday(), which depends on the current date.
+    private static final long MIN_BIRTH_DATE = -378691200000L; // 1958-01-01
+    private static final long MAX_BIRTH_DATE = 1136073600000L; // 2006-01-01
+
+    private final int blockSize;
+    private final int threads;
+    private final ExecutorService workers;
+    // Faker is not thread-safe and slow to build, so each worker keeps one factory per engine and
+    // reseeds its Random for every block.
+    private final ThreadLocal<FakerUserFactory> fakerFactories = ThreadLocal.withInitial(FakerUserFactory::new);
+    private final ThreadLocal<DictionaryUserFactory> dictionaryFactories =
+            ThreadLocal.withInitial(DictionaryUserFactory::new);
+
+    public UserGenerator(@Value("${users.generate.block-size:1000}") int blockSize,
+                         @Value("${users.generate.threads:0}") int threads) {
+        this.blockSize = blockSize;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.workers = Executors.newFixedThreadPool(this.threads, new CustomizableThreadFactory("user-generator-"));
+    }
+
+    /**
+     * Generates {@code count} users and passes them to {@code consumer} in a deterministic order.
+     * At most two blocks per worker are held in memory at a time.
+     */
+    public void generate(int count, long seed, int shard, GeneratorEngine engine, UserConsumer consumer)
+            throws IOException {
+        int blocks = (count + blockSize - 1) / blockSize;
+        Deque<Future<List<User>>> window = new ArrayDeque<>();
+        int nextBlock = 0;
+
+        try {
+            while (nextBlock < blocks || !window.isEmpty()) {
+                while (nextBlock < blocks && window.size() < threads * 2) {
+                    int block = nextBlock++;
+                    int size = Math.min(blockSize, count - block * blockSize);
+                    window.add(workers.submit(() -> generateBlock(engine, blockSeed(seed, shard, block), size)));
+                }
+                for (User user : window.poll().get()) {
+                    consumer.accept(user);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("User generation was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("User generation failed", e.getCause());
+        } finally {
+            window.forEach(block -> block.cancel(true));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private List<User> generateBlock(GeneratorEngine engine, long seed, int size) {
+        UserFactory factory = engine == GeneratorEngine.DICTIONARY ? dictionaryFactories.get() : fakerFactories.get();
+        factory.random().setSeed(seed);
+        List<User> users = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            users.add(factory.create());
+        }
+        return users;
+    }
+
+    static long blockSeed(long seed, int shard, int block) {
+        long z = seed + 0x9E3779B97F4A7C15L * (((long) shard << 32) + block + 1);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @FunctionalInterface
+    public interface UserConsumer {
+        void accept(User user) throws IOException;
+    }
+
+    private interface UserFactory {
+        Random random();
+
+        User create();
+    }
+
+    private static Date randomBirthDate(Random random) {
+        return new Date(MIN_BIRTH_DATE + (long) (random.nextDouble() * (MAX_BIRTH_DATE - MIN_BIRTH_DATE)));
+    }
+
+    private static String randomPassword(Random random, StringBuilder sb) {
+        sb.setLength(0);
+        int length = random.nextInt(5) + 6;
+        for (int i = 0; i < length; i++) {
+            sb.append(PASSWORD_CHARACTERS[random.nextInt(PASSWORD_CHARACTERS.length)]);
+        }
+        return sb.toString();
+    }
+
+    private static class FakerUserFactory implements UserFactory {
+        private final Random random = new Random();
+        private final Faker faker = new Faker(random);
+        private final StringBuilder sb = new StringBuilder();
+
+        @Override
+        public Random random() {
+            return random;
+        }
+
+        @Override
+        public User create() {
+            User user = new User();
+            user.setFirstName(faker.name().firstName());
+            user.setLastName(faker.name().lastName());
+            user.setBirthDate(randomBirthDate(random));
+            user.setCity(faker.address().city());
+            user.setCountry(faker.address().countryCode());
+            user.setAvatar(faker.internet().avatar());
+            user.setCompany(faker.company().name());
+            user.setJobPosition(faker.job().title());
+            user.setMobile(faker.phoneNumber().cellPhone());
+            user.setUsername(faker.internet().emailAddress());
+            user.setEmail(faker.internet().emailAddress());
+            user.setPassword(randomPassword(random, sb));
+            user.setRole(random.nextBoolean() ? Role.USER : Role.ADMIN);
+            return user;
+        }
+    }
+
+    /**
+     * Builds the same shapes as the Faker expressions for city, company, job title, phone number and
+     * e-mail address, using one reusable buffer per worker.
+     */
+    private static class DictionaryUserFactory implements UserFactory {
+        private final UserDictionary dictionary = UserDictionary.getInstance();
+        private final Random random = new Random();
+        private final StringBuilder sb = new StringBuilder(64);
+
+        @Override
+        public Random random() {
+            return random;
+        }
+
+        @Override
+        public User create() {
+            User user = new User();
+            user.setFirstName(pick(dictionary.firstNames));
+            user.setLastName(pick(dictionary.lastNames));
+            user.setBirthDate(randomBirthDate(random));
+            user.setCity(city());
+            user.setCountry(pick(dictionary.countryCodes));
+            user.setAvatar(pick(dictionary.avatars));
+            user.setCompany(company());
+            user.setJobPosition(jobTitle());
+            user.setMobile(cellPhone());
+            user.setUsername(emailAddress());
+            user.setEmail(emailAddress());
+            user.setPassword(randomPassword(random, sb));
+            user.setRole(random.nextBoolean() ? Role.USER : Role.ADMIN);
+            return user;
+        }
+
+        private String pick(String[] values) {
+            return values[random.nextInt(values.length)];
+        }
+
+        private String city() {
+            sb.setLength(0);
+            switch (random.nextInt(4)) {
+                case 0 -> sb.append(pick(dictionary.cityPrefixes)).append(' ')
+                        .append(pick(dictionary.firstNames)).append(pick(dictionary.citySuffixes));
+                case 1 -> sb.append(pick(dictionary.cityPrefixes)).append(' ').append(pick(dictionary.firstNames));
+                case 2 -> sb.append(pick(dictionary.firstNames)).append(pick(dictionary.citySuffixes));
+                default -> sb.append(pick(dictionary.lastNames)).append(pick(dictionary.citySuffixes));
+            }
+            return sb.toString();
+        }
+
+        private String company() {
+            sb.setLength(0);
+            switch (random.nextInt(3)) {
+                case 0 -> sb.append(pick(dictionary.lastNames)).append(' ').append(pick(dictionary.companySuffixes));
+                case 1 -> sb.append(pick(dictionary.lastNames)).append('-').append(pick(dictionary.lastNames));
+                default -> sb.append(pick(dictionary.lastNames)).append(", ").append(pick(dictionary.lastNames))
+                        .append(" and ").append(pick(dictionary.lastNames));
+            }
+            return sb.toString();
+        }
+
+        private String jobTitle() {
+            sb.setLength(0);
+            switch (random.nextInt(5)) {
+                case 0, 1 -> sb.append(pick(dictionary.jobSeniorities)).append(' ')
+                        .append(pick(dictionary.jobFields)).append(' ').append(pick(dictionary.jobPositions));
+                case 2, 3 -> sb.append(pick(dictionary.jobFields)).append(' ').append(pick(dictionary.jobPositions));
+                default -> sb.append(pick(dictionary.jobSeniorities)).append(' ').append(pick(dictionary.jobPositions));
+            }
+            return sb.toString();
+        }
+
+        private String cellPhone() {
+            char[] format = dictionary.cellPhoneFormats[random.nextInt(dictionary.cellPhoneFormats.length)];
+            sb.setLength(0);
+            for (char c : format) {
+                sb.append(c == '#' ? (char) ('0' + random.nextInt(10)) : c);
+            }
+            return sb.toString();
+        }
+
+        private String emailAddress() {
+            sb.setLength(0);
+            sb.append(pick(dictionary.emailFirstNames)).append('.').append(pick(dictionary.emailLastNames))
+                    .append('@').append(pick(dictionary.emailDomains));
+            return sb.toString();
+        }
+    }
+}
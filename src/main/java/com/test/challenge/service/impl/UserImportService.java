@@ -0,0 +1,341 @@
+package com.test.challenge.service.impl;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.test.challenge.dto.AuthDto.BatchResponseDTO;
+import com.test.challenge.entities.User;
+import com.test.challenge.enums.UserDataFormat;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Imports users from an upload in any {@link UserDataFormat}, plain or gzip-compressed, as a pipeline:
+ * <ol>
+ *     <li>the upload is read one user at a time on the calling thread, rows repeating a username or email
+ *     seen earlier in the file are dropped, and the rest is cut into fixed-size chunks,</li>
+ *     <li>each chunk is checked against existing usernames and emails with one query, and conflicting rows
+ *     are dropped before any work is spent on them,</li>
+ *     <li>the passwords of each chunk are BCrypt-hashed in slices spread over all cores,</li>
+ *     <li>a bounded pool of workers inserts the hashed chunks in parallel, each in its own transaction.</li>
+ * </ol>
+ * Only a bounded number of chunks is in the pipeline at any time. The usernames and emails remembered
+ * to spot repeats within the file do grow with the file, by roughly 100 bytes per distinct value, so they
+ * are capped at {@code dedupe-max-keys}; past the cap, later repeats are no longer dropped while reading
+ * and fail at the insert instead.
+ */
+@Slf4j
+@Service
+public class UserImportService {
+    private static final Duration FAILED_IMPORT_WAIT = Duration.ofSeconds(30);
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}$");
+
+    private final UserBatchWriter batchWriter;
+    private final UserCache userCache;
+    private final UserDataFormats userDataFormats;
+    private final int chunkSize;
+    private final int concurrency;
+    private final ExecutorService workers;
+    private final PasswordEncoder passwordEncoder;
+    private final int hashThreads;
+    private final ExecutorService hashers;
+    private final int dedupeMaxKeys;
+    private final Timer completedImportTimer;
+    private final Timer failedImportTimer;
+    private final Timer checkTimer;
+    private final Timer hashTimer;
+    private final Timer insertTimer;
+    private final Counter insertedRows;
+    private final Counter failedRows;
+    private final Counter duplicateRows;
+
+    /**
+     * @param concurrency        number of chunks inserted in parallel
+     * @param connectionPoolSize size of the datasource pool; one connection is always left for other requests
+     * @param bcryptStrength     work factor used for imported passwords, login accepts any strength
+     * @param hashThreads        threads hashing passwords, {@code 0} for one per core
+     * @param dedupeMaxKeys      usernames and emails remembered per import to drop rows repeated in the file
+     */
+    public UserImportService(UserBatchWriter batchWriter,
+                             UserCache userCache,
+                             UserDataFormats userDataFormats,
+                             @Value("${users.import.chunk-size:1000}") int chunkSize,
+                             @Value("${users.import.concurrency:4}") int concurrency,
+                             @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize,
+                             @Value("${users.import.password.bcrypt-strength:10}") int bcryptStrength,
+                             @Value("${users.import.password.hash-threads:0}") int hashThreads,
+                             @Value("${users.import.dedupe-max-keys:1000000}") int dedupeMaxKeys,
+                             MeterRegistry meterRegistry) {
+        this.batchWriter = batchWriter;
+        this.userCache = userCache;
+        this.userDataFormats = userDataFormats;
+        this.chunkSize = chunkSize;
+        this.concurrency = Math.max(1, Math.min(concurrency, connectionPoolSize - 1));
+        this.workers = Executors.newFixedThreadPool(this.concurrency, new CustomizableThreadFactory("user-import-"));
+        this.passwordEncoder = new BCryptPasswordEncoder(bcryptStrength);
+        this.hashThreads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        this.hashers = Executors.newFixedThreadPool(this.hashThreads, new CustomizableThreadFactory("user-import-hash-"));
+        this.dedupeMaxKeys = dedupeMaxKeys;
+        this.completedImportTimer = importTimer("completed", meterRegistry);
+        this.failedImportTimer = importTimer("failed", meterRegistry);
+        this.checkTimer = stageTimer("check", meterRegistry);
+        this.hashTimer = stageTimer("hash", meterRegistry);
+        this.insertTimer = stageTimer("insert", meterRegistry);
+        this.insertedRows = rowCounter("inserted", meterRegistry);
+        this.failedRows = rowCounter("failed", meterRegistry);
+        this.duplicateRows = rowCounter("duplicate", meterRegistry);
+    }
+
+    /**
+     * An import fails when the upload cannot be read to the end; rows refused by the database do not count.
+     */
+    private static Timer importTimer(String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder("users.import")
+                .description("Whole imports, from the first byte read to the last chunk inserted")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static Timer stageTimer(String stage, MeterRegistry meterRegistry) {
+        return Timer.builder("users.import.stage")
+                .description("Work on one chunk, or one slice of a chunk when hashing, per pipeline stage")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    /**
+     * As in {@link BatchResponseDTO}, failed rows include the duplicates.
+     */
+    private static Counter rowCounter(String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("users.import.rows")
+                .description("Imported rows by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Rows inserted before a parse error are kept and counted; the parse error itself is reported
+     * as {@code -1} failed rows, as before.
+     */
+    public BatchResponseDTO importUsers(InputStream inputStream) {
+        return importUsers(inputStream, null);
+    }
+
+    /**
+     * @param format the format of the upload, or {@code null} to detect it from its first bytes
+     */
+    public BatchResponseDTO importUsers(InputStream inputStream, UserDataFormat format) {
+        return importUsers(inputStream, format, (inserted, failed, duplicates) -> { });
+    }
+
+    /**
+     * @param progress notified from the worker threads as each chunk completes
+     */
+    public BatchResponseDTO importUsers(InputStream inputStream, UserDataFormat format, ProgressListener progress) {
+        ImportRun run = new ImportRun(hashThreads + concurrency * 2, progress);
+        Timer.Sample sample = Timer.start();
+        Timer outcome = failedImportTimer;
+
+        try (MappingIterator<User> users = userDataFormats.openReader(inputStream, format)) {
+            List<User> chunk = new ArrayList<>(chunkSize);
+            int repeated = 0;
+            while (users.hasNextValue()) {
+                User user = users.nextValue();
+                if (run.isRepeated(user)) {
+                    repeated++;
+                    continue;
+                }
+                chunk.add(user);
+                if (chunk.size() == chunkSize) {
+                    run.submit(chunk, repeated);
+                    chunk = new ArrayList<>(chunkSize);
+                    repeated = 0;
+                }
+            }
+            if (!chunk.isEmpty() || repeated > 0) {
+                run.submit(chunk, repeated);
+            }
+            run.awaitCompletion();
+            outcome = completedImportTimer;
+            return new BatchResponseDTO(run.inserted.get(), run.failed.get(), run.duplicates.get());
+        } catch (IOException | RuntimeException e) {
+            log.error("User import stopped after {} rows", run.inserted.get() + run.failed.get(), e);
+            run.awaitQuietly();
+            return new BatchResponseDTO(run.inserted.get(), -1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new BatchResponseDTO(run.inserted.get(), -1);
+        } finally {
+            sample.stop(outcome);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashers.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * Splits the chunk into one slice per hashing thread so that even a single chunk uses every core.
+     */
+    private CompletableFuture<List<User>> hashPasswords(List<User> chunk) {
+        int sliceSize = (chunk.size() + hashThreads - 1) / hashThreads;
+        List<CompletableFuture<Void>> slices = new ArrayList<>();
+        for (int from = 0; from < chunk.size(); from += sliceSize) {
+            List<User> slice = chunk.subList(from, Math.min(from + sliceSize, chunk.size()));
+            slices.add(CompletableFuture.runAsync(() -> hashTimer.record(() -> slice.forEach(this::hashPassword)), hashers));
+        }
+        return CompletableFuture.allOf(slices.toArray(CompletableFuture[]::new)).thenApply(done -> chunk);
+    }
+
+    private void hashPassword(User user) {
+        String password = user.getPassword();
+        // Files exported from an existing database already carry hashes, which must not be hashed twice.
+        if (password == null || password.isEmpty() || BCRYPT_HASH.matcher(password).matches()) {
+            return;
+        }
+        user.setPassword(passwordEncoder.encode(password));
+    }
+
+    private int insertChunk(List<User> chunk) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        int inserted = insertTimer.record(() -> batchWriter.insert(chunk));
+        userCache.invalidateAll(chunk.stream().map(User::getUsername).filter(Objects::nonNull).toList());
+        return inserted;
+    }
+
+    /**
+     * Receives the outcome of each chunk. As in {@link BatchResponseDTO}, {@code failed} counts every row
+     * that was not inserted and {@code duplicates} the part of those that conflicted on username or email.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void chunkCompleted(int inserted, int failed, int duplicates);
+    }
+
+    private record ChunkResult(int inserted, int existing) {
+    }
+
+    /**
+     * Tracks the chunks of one import. The semaphore bounds how many chunks are being hashed, queued or
+     * inserted, which makes the reader wait instead of buffering the file when the pipeline falls behind.
+     */
+    private class ImportRun {
+        private final int maxInFlight;
+        private final Semaphore inFlight;
+        private final AtomicInteger inserted = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger duplicates = new AtomicInteger();
+        private final ProgressListener progress;
+        // Only touched by the reading thread, together at most dedupeMaxKeys entries
+        private final Set<String> seenUsernames = new HashSet<>();
+        private final Set<String> seenEmails = new HashSet<>();
+
+        ImportRun(int maxInFlight, ProgressListener progress) {
+            this.maxInFlight = maxInFlight;
+            this.inFlight = new Semaphore(maxInFlight);
+            this.progress = progress;
+        }
+
+        boolean isRepeated(User user) {
+            String username = user.getUsername();
+            String email = user.getEmail();
+            if ((username != null && seenUsernames.contains(username)) || (email != null && seenEmails.contains(email))) {
+                return true;
+            }
+            if (seenUsernames.size() + seenEmails.size() >= dedupeMaxKeys) {
+                return false;
+            }
+            if (username != null) {
+                seenUsernames.add(username);
+            }
+            if (email != null) {
+                seenEmails.add(email);
+            }
+            return false;
+        }
+
+        /**
+         * @param repeated rows dropped while reading this chunk because they repeat earlier rows of the file
+         */
+        void submit(List<User> chunk, int repeated) throws InterruptedException {
+            inFlight.acquire();
+            CompletableFuture<List<User>> checked;
+            try {
+                checked = CompletableFuture.supplyAsync(() -> checkTimer.record(() -> batchWriter.withoutExisting(chunk)), workers);
+            } catch (RejectedExecutionException e) {
+                // Only happens while the pools shut down; nothing will run the chunk and release its permit.
+                inFlight.release();
+                throw e;
+            }
+            checked.thenCompose(UserImportService.this::hashPasswords)
+                    .thenApplyAsync(fresh -> new ChunkResult(insertChunk(fresh), chunk.size() - fresh.size()), workers)
+                    .whenComplete((result, error) -> {
+                        int rows = chunk.size() + repeated;
+                        int chunkInserted = error != null ? 0 : result.inserted();
+                        int chunkDuplicates = repeated + (error != null ? 0 : result.existing());
+                        if (error != null) {
+                            log.error("Import of a chunk of {} users failed", chunk.size(), error);
+                        }
+                        inserted.addAndGet(chunkInserted);
+                        failed.addAndGet(rows - chunkInserted);
+                        duplicates.addAndGet(chunkDuplicates);
+                        insertedRows.increment(chunkInserted);
+                        failedRows.increment(rows - chunkInserted);
+                        duplicateRows.increment(chunkDuplicates);
+                        try {
+                            progress.chunkCompleted(chunkInserted, rows - chunkInserted, chunkDuplicates);
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+        }
+
+        void awaitCompletion() throws InterruptedException {
+            inFlight.acquire(maxInFlight);
+            inFlight.release(maxInFlight);
+        }
+
+        /**
+         * Waits for the chunks already submitted when the import has failed, giving up after
+         * {@link #FAILED_IMPORT_WAIT} so that chunks stuck in a pool being shut down cannot hang the caller.
+         */
+        void awaitQuietly() {
+            try {
+                if (inFlight.tryAcquire(maxInFlight, FAILED_IMPORT_WAIT.toMillis(), TimeUnit.MILLISECONDS)) {
+                    inFlight.release(maxInFlight);
+                } else {
+                    log.warn("Gave up waiting for the chunks of a failed import after {}", FAILED_IMPORT_WAIT);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.test.challenge.service.impl;
+
+import com.test.challenge.dto.AuthDto.UserDTO;
+import com.test.challenge.entities.User;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps users to {@link UserDTO} with plain getter calls. Produces the same result as the default
+ * {@code ModelMapper} without resolving properties by reflection on every call; a field added to both
+ * classes has to be added here as well.
+ */
+@Component
+public class UserMapper {
+    public UserDTO toDto(User user) {
+        if (user == null) {
+            return null;
+        }
+        return UserDTO.builder()
+                .id(user.getId())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .birthDate(user.getBirthDate())
+                .city(user.getCity())
+                .country(user.getCountry())
+                .avatar(user.getAvatar())
+                .company(user.getCompany())
+                .jobPosition(user.getJobPosition())
+                .mobile(user.getMobile())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .password(user.getPassword())
+                .role(user.getRole() != null ? user.getRole().name() : null)
+                .build();
+    }
+}
@@ -1,21 +1,25 @@
 package com.test.challenge.service.impl;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.github.javafaker.Faker;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import com.test.challenge.dto.AuthDto.AuthRequestDTO;
 import com.test.challenge.dto.AuthDto.AuthResponseDTO;
 import com.test.challenge.dto.AuthDto.BatchResponseDTO;
+import com.test.challenge.dto.AuthDto.KeysetPageDTO;
 import com.test.challenge.dto.AuthDto.UserDTO;
+import com.test.challenge.dto.AuthDto.UserSearchDTO;
+import com.test.challenge.dto.AuthDto.UserSummaryDTO;
 import com.test.challenge.entities.Token;
 import com.test.challenge.entities.User;
-import com.test.challenge.enums.Role;
+import com.test.challenge.enums.GeneratorEngine;
+import com.test.challenge.enums.UserDataFormat;
 import com.test.challenge.repositories.TokenRepository;
 import com.test.challenge.repositories.UserRepository;
-import org.modelmapper.ModelMapper;
-import org.springframework.beans.factory.annotation.Autowired;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -25,43 +29,71 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 @Service
 public class UserService {
+    public static final int MAX_PAGE_SIZE = 1000;
+
     private final UserRepository repository;
+    private final UserCache userCache;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final TokenRepository tokenRepository;
+    private final TokenRevocationCache revocationCache;
     private final AuthenticationManager authenticationManager;
-    private final Faker faker;
-    private final ObjectMapper objectMapper;
-
-
-
-    @Autowired
-    private ModelMapper modelMapper;
+    private final UserDataFormats userDataFormats;
+    private final UserImportService userImportService;
+    private final UserGenerator userGenerator;
+    private final UserMapper userMapper;
+    private final MeterRegistry meterRegistry;
+    private final LoginExecutor loginExecutor;
 
     public UserService(UserRepository repository,
+                                 UserCache userCache,
                                  PasswordEncoder passwordEncoder,
                                  JwtService jwtService,
                                  TokenRepository tokenRepository,
+                                 TokenRevocationCache revocationCache,
                                  AuthenticationManager authenticationManager,
-                                 ObjectMapper objectMapper) {
+                                 UserDataFormats userDataFormats,
+                                 UserImportService userImportService,
+                                 UserGenerator userGenerator,
+                                 UserMapper userMapper,
+                                 MeterRegistry meterRegistry,
+                                 LoginExecutor loginExecutor) {
         this.repository = repository;
+        this.userCache = userCache;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
         this.tokenRepository = tokenRepository;
+        this.revocationCache = revocationCache;
         this.authenticationManager = authenticationManager;
-        this.objectMapper = objectMapper;
-        this.faker = new Faker();
+        this.userDataFormats = userDataFormats;
+        this.userImportService = userImportService;
+        this.userGenerator = userGenerator;
+        this.userMapper = userMapper;
+        this.meterRegistry = meterRegistry;
+        this.loginExecutor = loginExecutor;
     }
 
 
+    /**
+     * Runs {@link #authenticate} on the {@link LoginExecutor}.
+     *
+     * @throws com.test.challenge.config.ServiceOverloadedException if the login queue is full
+     */
+    public CompletableFuture<AuthResponseDTO> authenticateAsync(AuthRequestDTO request) {
+        return loginExecutor.submit(() -> authenticate(request));
+    }
+
     public AuthResponseDTO authenticate(AuthRequestDTO request) {
         authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
@@ -70,115 +102,97 @@ public class UserService {
                 )
         );
 
-        User user = repository.findByUsername(request.getUsername()).orElseThrow();
-        String jwt = jwtService.generateToken(user);
+        User user = userCache.findByUsername(request.getUsername()).orElseThrow();
+        IssuedToken jwt = jwtService.issueToken(user);
 
 
         revokeAllTokenByUser(user);
         saveUserToken(jwt, user);
 
         return AuthResponseDTO.builder()
-                .token(jwt)
+                .token(jwt.token())
                 .build();
 
     }
 
-    public String generateUsers(int count) {
-        List<User> users = new ArrayList<>();
-        for (int i = 0; i < count; i++) {
-            User user = new User();
-            user.setFirstName(faker.name().firstName());
-            user.setLastName(faker.name().lastName());
-            user.setBirthDate(faker.date().birthday());
-            user.setCity(faker.address().city());
-            user.setCountry(faker.address().countryCode());
-            user.setAvatar(faker.internet().avatar());
-            user.setCompany(faker.company().name());
-            user.setJobPosition(faker.job().title());
-            user.setMobile(faker.phoneNumber().cellPhone());
-            user.setUsername(faker.internet().emailAddress());
-            user.setEmail(faker.internet().emailAddress());
-            user.setPassword(generateRandomPassword());
-            user.setRole(faker.random().nextBoolean() ? Role.USER : Role.ADMIN);
-            users.add(user);
-        }
+    /**
+     * Writes {@code count} random users to {@code out}, one user at a time, so memory use does not
+     * depend on {@code count}. The same seed and shard always produce the same users.
+     */
+    public void generateUsers(int count, long seed, int shard, GeneratorEngine engine,
+                              UserDataFormat format, boolean gzip, OutputStream out) throws IOException {
+        Tags tags = Tags.of("engine", engine.name(), "format", format.name());
+        Timer.Sample sample = Timer.start();
+        String outcome = "failed";
         try {
-            return objectMapper.writeValueAsString(users);
-        } catch (JsonProcessingException e) {
-            e.printStackTrace();
-            return null;
+            GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, 64 * 1024) : null;
+            try (SequenceWriter writer = userDataFormats.openWriter(format, compressed != null ? compressed : out)) {
+                userGenerator.generate(count, seed, shard, engine, writer::write);
+            }
+            if (compressed != null) {
+                compressed.finish();
+            }
+            outcome = "completed";
+        } finally {
+            sample.stop(Timer.builder("users.generate")
+                    .description("Generation requests, until the last user is written or the request fails")
+                    .tags(tags)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
         }
+        // Only completed requests count, as a failed one leaves the client with an unusable document.
+        Counter.builder("users.generated")
+                .description("Generated users")
+                .tags(tags)
+                .register(meterRegistry)
+                .increment(count);
     }
 
 
     public BatchResponseDTO batchImportUsers(InputStream inputStream) {
-        TypeReference<List<User>> typeReference = new TypeReference<List<User>>() {};
-
-        try {
-            List<User> users = objectMapper.readValue(inputStream, typeReference);
-            int successfullyInserted = 0;
-            int failedToInsert = 0;
-
-            for (User user : users) {
-                try {
-                    repository.save(user);
-                    successfullyInserted++;
-                } catch (Exception e) {
-                    failedToInsert++;
-                    e.printStackTrace();
-                }
-            }
-            return new BatchResponseDTO(successfullyInserted, failedToInsert);
-        } catch (IOException e) {
-            e.printStackTrace();
-            return new BatchResponseDTO(0, -1);
-        }
-
-
-
+        return userImportService.importUsers(inputStream);
+    }
 
+    public BatchResponseDTO batchImportUsers(InputStream inputStream, UserDataFormat format) {
+        return userImportService.importUsers(inputStream, format);
     }
 
 
 
-    public List<UserDTO> getCurrentUser(){
-        return Arrays.asList(modelMapper.map(repository.findUsersLoggedOut(), UserDTO[].class));
+    /**
+     * Users with a logged-out token, one page at a time in id order.
+     *
+     * @param after the {@code nextCursor} of the previous page, or {@code null} for the first page
+     */
+    public KeysetPageDTO<UserSummaryDTO> getCurrentUser(Long after, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<UserSummaryDTO> rows = repository.findLoggedOutSummaries(after != null ? after : Long.MIN_VALUE,
+                PageRequest.ofSize(pageSize + 1));
+        return KeysetPageDTO.of(rows, pageSize, UserSummaryDTO::getId);
+    }
 
+    public KeysetPageDTO<UserSummaryDTO> search(UserSearchDTO filter, Long after, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<UserSummaryDTO> rows = repository.search(filter, after != null ? after : Long.MIN_VALUE, pageSize + 1);
+        return KeysetPageDTO.of(rows, pageSize, UserSummaryDTO::getId);
     }
 
     public UserDTO findByUserName(String username){
-        User user = repository.findByUsername(username)
+        User user = userCache.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        return modelMapper.map(user, UserDTO.class);
-    }
-
-    private String generateRandomPassword() {
-        int length = faker.random().nextInt(5) + 6;
-        String characters = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < length; i++) {
-            int index = faker.random().nextInt(characters.length());
-            sb.append(characters.charAt(index));
-        }
-        return sb.toString();
+        return userMapper.toDto(user);
     }
 
     private void revokeAllTokenByUser(User user) {
-        List<Token> validTokens = tokenRepository.findAllTokensByUser(user.getId());
-        if(validTokens.isEmpty()) {
-            return;
+        if (tokenRepository.revokeAllByUserId(user.getId()) > 0) {
+            revocationCache.revokeAllForUser(user.getUsername());
         }
-
-        validTokens.forEach(t-> {
-            t.setLoggedOut(true);
-        });
-
-        tokenRepository.saveAll(validTokens);
     }
-    private void saveUserToken(String jwt, User user) {
+    private void saveUserToken(IssuedToken jwt, User user) {
         Token token = new Token();
-        token.setToken(jwt);
+        token.setTokenHash(jwtService.hashToken(jwt.token()));
         token.setLoggedOut(false);
+        token.setExpiresAt(jwt.expiresAt());
         token.setUser(user);
         tokenRepository.save(token);
     }
@@ -0,0 +1,26 @@
+package com.test.challenge.service.impl;
+
+import lombok.Value;
+
+import java.util.Date;
+
+/**
+ * Claims of a JWT whose signature has already been checked by {@link JwtService#verify(String)}.
+ * Callers keep this around instead of re-parsing the raw token for each claim they need.
+ */
+@Value
+public class VerifiedToken {
+    String token;
+    String subject;
+    Date issuedAt;
+    Date expiration;
+    /**
+     * Role and user version embedded at login, {@code null} for tokens issued without them.
+     */
+    String role;
+    Long userVersion;
+
+    public boolean isExpired() {
+        return expiration != null && expiration.getTime() <= System.currentTimeMillis();
+    }
+}
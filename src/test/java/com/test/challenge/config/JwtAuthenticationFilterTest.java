@@ -0,0 +1,109 @@
+package com.test.challenge.config;
+
+import com.test.challenge.entities.Token;
+import com.test.challenge.entities.User;
+import com.test.challenge.enums.Role;
+import com.test.challenge.repositories.TokenRepository;
+import com.test.challenge.service.impl.JwtService;
+import com.test.challenge.service.impl.TokenRevocationCache;
+import com.test.challenge.service.impl.UserDetailsServiceImp;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtAuthenticationFilterTest {
+    @Mock
+    private TokenRepository tokenRepository;
+
+    @Mock
+    private UserDetailsServiceImp userDetailsService;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private JwtService jwtService;
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        jwtService = new JwtService(tokenRepository, new TokenRevocationCache(1000, new SimpleMeterRegistry()), Duration.ofHours(24));
+        user = User.builder()
+                .id(1L)
+                .username("john_doe")
+                .role(Role.ADMIN)
+                .version(3L)
+                .build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testStatelessPrincipalComesFromClaims() throws Exception {
+        String jwt = jwtService.generateToken(user);
+        given(tokenRepository.findByTokenHash(any())).willReturn(Optional.of(Token.builder().build()));
+
+        filter(true).doFilter(request(jwt), new MockHttpServletResponse(), filterChain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals("john_doe", authentication.getName());
+        assertEquals(List.of("ROLE_ADMIN"), authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        verify(userDetailsService, never()).loadUserByUsername(any());
+        verify(filterChain).doFilter(any(), any());
+    }
+
+    @Test
+    public void testStatelessPrincipalStillChecksRevocation() throws Exception {
+        String jwt = jwtService.generateToken(user);
+        given(tokenRepository.findByTokenHash(any())).willReturn(Optional.of(Token.builder().loggedOut(true).build()));
+
+        filter(true).doFilter(request(jwt), new MockHttpServletResponse(), filterChain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(filterChain).doFilter(any(), any());
+    }
+
+    @Test
+    public void testStatefulPrincipalLoadsTheUser() throws Exception {
+        String jwt = jwtService.generateToken(user);
+        given(tokenRepository.findByTokenHash(any())).willReturn(Optional.of(Token.builder().build()));
+        given(userDetailsService.loadUserByUsername("john_doe")).willReturn(user);
+
+        filter(false).doFilter(request(jwt), new MockHttpServletResponse(), filterChain);
+
+        assertSame(user, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+    }
+
+    private JwtAuthenticationFilter filter(boolean statelessPrincipal) {
+        return new JwtAuthenticationFilter(jwtService, userDetailsService, statelessPrincipal, new SimpleMeterRegistry());
+    }
+
+    private static MockHttpServletRequest request(String jwt) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/me");
+        request.addHeader("Authorization", "Bearer " + jwt);
+        return request;
+    }
+}
@@ -0,0 +1,43 @@
+package com.test.challenge.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class QueryCountFilterTest {
+    private final QueryCounter queryCounter = new QueryCounter();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final QueryCountFilter filter = new QueryCountFilter(queryCounter, meterRegistry);
+
+    @Test
+    public void testRecordsStatementsPerEndpoint() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/john_doe");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            queryCounter.inspect("select * from users");
+            queryCounter.inspect("select * from token");
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/users/{username}");
+        });
+
+        DistributionSummary queries = meterRegistry.get("http.server.requests.queries")
+                .tag("uri", "/api/users/{username}")
+                .summary();
+        assertEquals(1, queries.count());
+        assertEquals(2, queries.totalAmount());
+    }
+
+    @Test
+    public void testIgnoresStatementsOutsideRequests() {
+        queryCounter.inspect("select 1");
+        queryCounter.start();
+        queryCounter.inspect("select 1");
+
+        assertEquals(1, queryCounter.stop());
+        assertEquals(0, queryCounter.stop());
+    }
+}
@@ -0,0 +1,112 @@
+package com.test.challenge.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.test.challenge.config.ServiceOverloadedException;
+import com.test.challenge.dto.AuthDto.AuthRequestDTO;
+import com.test.challenge.dto.AuthDto.AuthResponseDTO;
+import com.test.challenge.entities.User;
+import com.test.challenge.enums.Role;
+import com.test.challenge.repositories.UserRepository;
+import com.test.challenge.service.impl.LoginExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.Search;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * Exercises the asynchronous login endpoint through the whole stack, security and error handling included.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.jpa.show-sql=false")
+public class LoginEndpointTest {
+    private static final String PASSWORD = "password";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @SpyBean
+    private LoginExecutor loginExecutor;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    public void setUp() {
+        if (userRepository.findByUsername("login_user").isEmpty()) {
+            userRepository.save(User.builder()
+                    .username("login_user")
+                    .email("login_user@example.com")
+                    .password(passwordEncoder.encode(PASSWORD))
+                    .role(Role.USER)
+                    .build());
+        }
+    }
+
+    @Test
+    public void testLoginReturnsTokenAndCountsItsQueries() throws Exception {
+        HttpResponse<String> response = login(PASSWORD);
+
+        assertEquals(200, response.statusCode());
+        assertNotNull(objectMapper.readValue(response.body(), AuthResponseDTO.class).getToken());
+        // Recorded when the asynchronous request completes, which may be just after the client has the response
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        Search queries = meterRegistry.find("http.server.requests.queries").tag("uri", "/api/users/login");
+        while ((queries.summary() == null || queries.summary().totalAmount() == 0) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(queries.summary().totalAmount() > 0);
+    }
+
+    @Test
+    public void testLoginRejectsBadCredentials() throws Exception {
+        HttpResponse<String> response = login("wrong-password");
+
+        assertEquals(403, response.statusCode());
+    }
+
+    @Test
+    public void testLoginAnswers503WhenVerificationIsSaturated() throws Exception {
+        doThrow(new ServiceOverloadedException("Too many logins in progress, retry later", Duration.ofSeconds(2)))
+                .when(loginExecutor).submit(any());
+
+        HttpResponse<String> response = login(PASSWORD);
+
+        assertEquals(503, response.statusCode());
+        assertEquals("2", response.headers().firstValue("Retry-After").orElseThrow());
+    }
+
+    private HttpResponse<String> login(String password) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/users/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(
+                        objectMapper.writeValueAsBytes(new AuthRequestDTO("login_user", password))))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,86 @@
+package com.test.challenge.controller;
+
+import com.test.challenge.config.OverloadExceptionHandler;
+import com.test.challenge.enums.GeneratorEngine;
+import com.test.challenge.enums.UserDataFormat;
+import com.test.challenge.repositories.UserRepository;
+import com.test.challenge.service.impl.ImportJobService;
+import com.test.challenge.service.impl.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+public class UserControllerTest {
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ImportJobService importJobService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new UserController(userService, userRepository, importJobService))
+                .setControllerAdvice(new OverloadExceptionHandler())
+                .build();
+    }
+
+    @Test
+    public void testGenerateNegotiatesFormatFromAccept() throws Exception {
+        perform(get("/api/users/generate").param("count", "5").header(HttpHeaders.ACCEPT, "application/json;q=0.5, text/csv"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+
+        verify(userService).generateUsers(eq(5), anyLong(), eq(0), eq(GeneratorEngine.FAKER), eq(UserDataFormat.CSV), eq(false), any());
+    }
+
+    @Test
+    public void testGenerateCompressesWhenAcceptEncodingAllowsIt() throws Exception {
+        perform(get("/api/users/generate").param("count", "5").param("format", "NDJSON")
+                .header(HttpHeaders.ACCEPT, "*/*")
+                .header(HttpHeaders.ACCEPT_ENCODING, "deflate, gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-ndjson"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+
+        verify(userService).generateUsers(eq(5), anyLong(), eq(0), eq(GeneratorEngine.FAKER), eq(UserDataFormat.NDJSON), eq(true), any());
+    }
+
+    @Test
+    public void testGenerateDefaultsToUncompressedJson() throws Exception {
+        perform(get("/api/users/generate").param("count", "5").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/json"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+
+        verify(userService).generateUsers(eq(5), anyLong(), eq(0), eq(GeneratorEngine.FAKER), eq(UserDataFormat.JSON), eq(false), any());
+    }
+
+    private ResultActions perform(RequestBuilder request) throws Exception {
+        MvcResult started = mockMvc.perform(request).andReturn();
+        return mockMvc.perform(asyncDispatch(started));
+    }
+}
@@ -0,0 +1,159 @@
+package com.test.challenge.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.test.challenge.dto.AuthDto.AuthRequestDTO;
+import com.test.challenge.dto.AuthDto.AuthResponseDTO;
+import com.test.challenge.entities.User;
+import com.test.challenge.enums.Role;
+import com.test.challenge.repositories.UserRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives concurrent logins, authenticated reads and imports against the full application on the embedded
+ * H2 database, and compares p99 latency and throughput with {@code load-baseline.properties}.
+ * Excluded from {@code mvn test}; run with {@code mvn -Pload test}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.jpa.show-sql=false")
+public class EndpointLoadTest {
+    private static final Logger log = LoggerFactory.getLogger(EndpointLoadTest.class);
+
+    private static final int REQUESTS = Integer.getInteger("load.requests", 500);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 8);
+    private static final int USERS = 100;
+    private static final int USERS_PER_UPLOAD = 100;
+    private static final String PASSWORD = "password";
+    private static final String BOUNDARY = "load-test-boundary";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private String passwordHash;
+
+    @Test
+    public void testEndpointsStayWithinBaseline() throws Exception {
+        seedUsers();
+        String adminToken = login("admin");
+        LoadRunner runner = new LoadRunner(client);
+
+        // Unmeasured round so that the measured ones do not include JIT compilation and cold caches
+        runner.run("warmup", REQUESTS / 5, CONCURRENCY, i -> read(i, adminToken));
+
+        List<LoadRunner.Result> results = new ArrayList<>();
+        // BCrypt makes a login far more expensive than a read, so fewer are sent.
+        results.add(runner.run("login", Math.max(1, REQUESTS / 10), CONCURRENCY,
+                i -> post("/api/users/login", "application/json", loginBody("user" + (i % USERS)))));
+        results.add(runner.run("read", REQUESTS, CONCURRENCY, i -> read(i, adminToken)));
+        results.add(runner.run("import", Math.max(1, REQUESTS / 50), Math.min(CONCURRENCY, 2),
+                i -> post("/api/users/batch", "multipart/form-data; boundary=" + BOUNDARY, upload(i))));
+
+        LoadBaseline baseline = LoadBaseline.load("load-baseline.properties");
+        List<String> regressions = new ArrayList<>();
+        for (LoadRunner.Result result : results) {
+            log.info("{}", result);
+            regressions.addAll(baseline.regressions(result));
+        }
+        LoadBaseline.write(Path.of("target", "load-results.properties"), results);
+        assertTrue(regressions.isEmpty(), () -> "Load regressions: " + regressions);
+    }
+
+    private void seedUsers() {
+        passwordHash = passwordEncoder.encode(PASSWORD);
+        List<User> users = new ArrayList<>();
+        users.add(user("admin", Role.ADMIN));
+        for (int i = 0; i < USERS; i++) {
+            users.add(user("user" + i, Role.USER));
+        }
+        userRepository.saveAll(users);
+    }
+
+    private User user(String username, Role role) {
+        return User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password(passwordHash)
+                .role(role)
+                .build();
+    }
+
+    private String login(String username) throws Exception {
+        HttpResponse<byte[]> response = client.send(post("/api/users/login", "application/json", loginBody(username)),
+                HttpResponse.BodyHandlers.ofByteArray());
+        return objectMapper.readValue(response.body(), AuthResponseDTO.class).getToken();
+    }
+
+    private byte[] loginBody(String username) {
+        try {
+            return objectMapper.writeValueAsBytes(new AuthRequestDTO(username, PASSWORD));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * New users with already hashed passwords, as in an export from another instance, so the import
+     * measures parsing and inserting rather than BCrypt.
+     */
+    private byte[] upload(int index) {
+        StringBuilder body = new StringBuilder()
+                .append("--").append(BOUNDARY).append("\r\n")
+                .append("Content-Disposition: form-data; name=\"file\"; filename=\"users.ndjson\"\r\n")
+                .append("Content-Type: application/x-ndjson\r\n\r\n");
+        for (int i = 0; i < USERS_PER_UPLOAD; i++) {
+            String username = "import" + index + "_" + i;
+            body.append("{\"username\":\"").append(username)
+                    .append("\",\"email\":\"").append(username).append("@example.com")
+                    .append("\",\"password\":\"").append(passwordHash)
+                    .append("\",\"role\":\"USER\"}\n");
+        }
+        body.append("\r\n--").append(BOUNDARY).append("--\r\n");
+        return body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private HttpRequest read(int index, String token) {
+        return HttpRequest.newBuilder(uri("/api/users/user" + (index % USERS)))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String contentType, byte[] body) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
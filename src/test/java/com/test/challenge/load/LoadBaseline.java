@@ -0,0 +1,68 @@
+package com.test.challenge.load;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Reference numbers from {@code load-baseline.properties}. A result regresses when its p99 latency is
+ * above, or its throughput below, the baseline by more than the tolerance. Endpoints without a baseline
+ * are reported but never flagged.
+ */
+class LoadBaseline {
+    private final Properties baseline;
+    private final double tolerance;
+
+    private LoadBaseline(Properties baseline) {
+        this.baseline = baseline;
+        this.tolerance = Double.parseDouble(baseline.getProperty("tolerance", "0.5"));
+    }
+
+    static LoadBaseline load(String resource) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = LoadBaseline.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in != null) {
+                properties.load(in);
+            }
+        }
+        return new LoadBaseline(properties);
+    }
+
+    List<String> regressions(LoadRunner.Result result) {
+        List<String> regressions = new ArrayList<>();
+        String p99 = baseline.getProperty(result.endpoint() + ".p99.ms");
+        if (p99 != null && result.p99() > Double.parseDouble(p99) * (1 + tolerance)) {
+            regressions.add(String.format(Locale.ROOT, "%s p99 %.2f ms exceeds baseline %s ms", result.endpoint(), result.p99(), p99));
+        }
+        String throughput = baseline.getProperty(result.endpoint() + ".throughput");
+        if (throughput != null && result.throughput() < Double.parseDouble(throughput) * (1 - tolerance)) {
+            regressions.add(String.format(Locale.ROOT, "%s throughput %.1f req/s is below baseline %s req/s",
+                    result.endpoint(), result.throughput(), throughput));
+        }
+        if (result.errors() > 0) {
+            regressions.add(result.endpoint() + " had " + result.errors() + " failed requests");
+        }
+        return regressions;
+    }
+
+    /**
+     * Writes the results in the baseline format, so that a run on the reference machine can replace the baseline.
+     */
+    static void write(Path file, List<LoadRunner.Result> results) throws IOException {
+        Properties properties = new Properties();
+        for (LoadRunner.Result result : results) {
+            properties.setProperty(result.endpoint() + ".p99.ms", String.format(Locale.ROOT, "%.2f", result.p99()));
+            properties.setProperty(result.endpoint() + ".throughput", String.format(Locale.ROOT, "%.1f", result.throughput()));
+        }
+        Files.createDirectories(file.getParent());
+        try (OutputStream out = Files.newOutputStream(file)) {
+            properties.store(out, "Load test results, same format as load-baseline.properties");
+        }
+    }
+}
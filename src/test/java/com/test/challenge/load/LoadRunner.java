@@ -0,0 +1,78 @@
+package com.test.challenge.load;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Sends a fixed number of requests from a fixed number of client threads, each waiting for its response
+ * before sending the next one, and records the latency of every request.
+ */
+class LoadRunner {
+    private final HttpClient client;
+
+    LoadRunner(HttpClient client) {
+        this.client = client;
+    }
+
+    /**
+     * @param request builds the i-th request; called on the client threads
+     */
+    Result run(String endpoint, int requests, int concurrency, IntFunction<HttpRequest> request) throws InterruptedException {
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        long start = System.nanoTime();
+        for (int t = 0; t < concurrency; t++) {
+            clients.execute(() -> {
+                for (int i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+                    HttpRequest httpRequest = request.apply(i);
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(httpRequest, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        errors.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    latencies[i] = System.nanoTime() - sent;
+                }
+            });
+        }
+        clients.shutdown();
+        if (!clients.awaitTermination(30, TimeUnit.MINUTES)) {
+            clients.shutdownNow();
+            throw new IllegalStateException(endpoint + " load did not finish");
+        }
+        long elapsed = System.nanoTime() - start;
+        Arrays.sort(latencies);
+        return new Result(endpoint, requests, errors.get(), requests * 1e9 / elapsed,
+                millis(latencies, 0.50), millis(latencies, 0.99), millis(latencies, 0.999));
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        int index = Math.max(0, (int) Math.ceil(percentile * sorted.length) - 1);
+        return sorted[index] / 1e6;
+    }
+
+    record Result(String endpoint, int requests, int errors, double throughput, double p50, double p99, double p999) {
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-8s %6d req %4d err %9.1f req/s  p50 %8.2f ms  p99 %8.2f ms  p999 %8.2f ms",
+                    endpoint, requests, errors, throughput, p50, p99, p999);
+        }
+    }
+}
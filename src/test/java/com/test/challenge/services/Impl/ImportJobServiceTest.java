@@ -0,0 +1,135 @@
+package com.test.challenge.services.Impl;
+
+import com.test.challenge.config.ServiceOverloadedException;
+import com.test.challenge.dto.AuthDto.BatchResponseDTO;
+import com.test.challenge.dto.AuthDto.ImportJobDTO;
+import com.test.challenge.enums.ImportJobStatus;
+import com.test.challenge.enums.UserDataFormat;
+import com.test.challenge.service.impl.ImportJobService;
+import com.test.challenge.service.impl.UserImportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ImportJobServiceTest {
+    @Mock
+    private UserImportService userImportService;
+
+    private ImportJobService importJobService;
+    private final MockMultipartFile file = new MockMultipartFile("file", "[{\"username\":\"user1\"}]".getBytes());
+
+    @BeforeEach
+    public void setUp() {
+        importJobService = new ImportJobService(userImportService, 1, Duration.ofMinutes(1), Duration.ofSeconds(7));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        importJobService.shutdown();
+    }
+
+    @Test
+    public void testJobReportsProgressWhileRunning() throws Exception {
+        CountDownLatch chunkReported = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userImportService.importUsers(any(InputStream.class), eq(UserDataFormat.JSON), any())).thenAnswer(invocation -> {
+            UserImportService.ProgressListener progress = invocation.getArgument(2);
+            progress.chunkCompleted(3, 1, 1);
+            chunkReported.countDown();
+            release.await();
+            progress.chunkCompleted(2, 0, 0);
+            return new BatchResponseDTO(5, 1);
+        });
+
+        ImportJobDTO submitted = importJobService.submit(file, UserDataFormat.JSON);
+        assertTrue(chunkReported.await(5, TimeUnit.SECONDS));
+
+        ImportJobDTO running = importJobService.find(submitted.getId()).orElseThrow();
+        assertEquals(ImportJobStatus.RUNNING, running.getStatus());
+        assertEquals(4, running.getProcessedRows());
+        assertEquals(1, running.getFailedRows());
+        assertEquals(1, running.getDuplicateRows());
+
+        release.countDown();
+        ImportJobDTO done = awaitFinished(submitted.getId());
+        assertEquals(ImportJobStatus.COMPLETED, done.getStatus());
+        assertEquals(5, done.getInsertedRows());
+        assertEquals(6, done.getProcessedRows());
+        assertNotNull(done.getFinishedAt());
+    }
+
+    @Test
+    public void testRejectsJobsBeyondTheLimit() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(userImportService.importUsers(any(InputStream.class), any(), any())).thenAnswer(invocation -> {
+            release.await();
+            return new BatchResponseDTO(1, 0);
+        });
+
+        ImportJobDTO first = importJobService.submit(file, null);
+        ServiceOverloadedException rejected = assertThrows(ServiceOverloadedException.class,
+                () -> importJobService.submit(file, null));
+        assertEquals(Duration.ofSeconds(7), rejected.getRetryAfter());
+
+        release.countDown();
+        awaitFinished(first.getId());
+        assertNotNull(importJobService.submit(file, null).getId());
+    }
+
+    @Test
+    public void testSynchronousImportSharesTheJobSlots() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(userImportService.importUsers(any(InputStream.class), any(), any())).thenAnswer(invocation -> {
+            release.await();
+            return new BatchResponseDTO(1, 0);
+        });
+        when(userImportService.importUsers(any(InputStream.class), any())).thenReturn(new BatchResponseDTO(1, 0));
+
+        ImportJobDTO running = importJobService.submit(file, null);
+        assertThrows(ServiceOverloadedException.class, () -> importJobService.importNow(file.getInputStream(), null));
+
+        release.countDown();
+        awaitFinished(running.getId());
+        assertEquals(1, importJobService.importNow(file.getInputStream(), null).getSuccessfullyInsertedRows());
+        assertNotNull(importJobService.submit(file, null).getId());
+    }
+
+    @Test
+    public void testParseErrorFailsTheJob() throws Exception {
+        when(userImportService.importUsers(any(InputStream.class), any(), any())).thenReturn(new BatchResponseDTO(0, -1));
+
+        ImportJobDTO done = awaitFinished(importJobService.submit(file, null).getId());
+
+        assertEquals(ImportJobStatus.FAILED, done.getStatus());
+        assertNotNull(done.getError());
+        assertTrue(importJobService.find("unknown").isEmpty());
+    }
+
+    private ImportJobDTO awaitFinished(String id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            ImportJobDTO job = importJobService.find(id).orElseThrow();
+            if (job.getFinishedAt() != null) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        fail("Import job " + id + " did not finish");
+        return null;
+    }
+}
@@ -0,0 +1,160 @@
+package com.test.challenge.services.Impl;
+
+import com.test.challenge.entities.Token;
+import com.test.challenge.entities.User;
+import com.test.challenge.enums.Role;
+import com.test.challenge.repositories.TokenRepository;
+import com.test.challenge.service.impl.IssuedToken;
+import com.test.challenge.service.impl.JwtService;
+import com.test.challenge.service.impl.TokenRevocationCache;
+import com.test.challenge.service.impl.VerifiedToken;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtServiceTest {
+    @Mock
+    private TokenRepository tokenRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TokenRevocationCache revocationCache;
+    private JwtService jwtService;
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        revocationCache = new TokenRevocationCache(1000, meterRegistry);
+        jwtService = new JwtService(tokenRepository, revocationCache, Duration.ofHours(24));
+        user = User.builder()
+                .id(1L)
+                .username("john_doe")
+                .role(Role.USER)
+                .build();
+    }
+
+    @Test
+    public void testVerifyReturnsClaims() {
+        String jwt = jwtService.generateToken(user);
+
+        VerifiedToken verified = jwtService.verify(jwt);
+
+        assertEquals(jwt, verified.getToken());
+        assertEquals("john_doe", verified.getSubject());
+        assertNotNull(verified.getIssuedAt());
+        assertTrue(verified.getExpiration().after(verified.getIssuedAt()));
+        assertFalse(verified.isExpired());
+        assertEquals("USER", verified.getRole());
+    }
+
+    @Test
+    public void testIssueTokenReturnsTheExpiryOfTheToken() {
+        IssuedToken issued = jwtService.issueToken(user);
+
+        assertEquals(jwtService.verify(issued.token()).getExpiration().toInstant(), issued.expiresAt());
+    }
+
+    @Test
+    public void testVerifyRejectsTamperedToken() {
+        String jwt = jwtService.generateToken(user);
+        String tampered = jwt.substring(0, jwt.length() - 2) + (jwt.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtService.verify(tampered));
+    }
+
+    @Test
+    public void testGenerateTokenIsUniquePerCall() {
+        assertNotEquals(jwtService.generateToken(user), jwtService.generateToken(user));
+    }
+
+    @Test
+    public void testIsValid() {
+        String jwt = jwtService.generateToken(user);
+        given(tokenRepository.findByTokenHash(jwtService.hashToken(jwt))).willReturn(Optional.of(Token.builder().build()));
+
+        assertTrue(jwtService.isValid(jwtService.verify(jwt), user));
+    }
+
+    @Test
+    public void testIsValidRejectsOtherUserWithoutQuery() {
+        String jwt = jwtService.generateToken(user);
+        User other = User.builder().username("jane_smith").role(Role.USER).build();
+
+        assertFalse(jwtService.isValid(jwtService.verify(jwt), other));
+        verify(tokenRepository, never()).findByTokenHash(any());
+    }
+
+    @Test
+    public void testIsValidCachesTokenState() {
+        String jwt = jwtService.generateToken(user);
+        given(tokenRepository.findByTokenHash(jwtService.hashToken(jwt))).willReturn(Optional.of(Token.builder().build()));
+        VerifiedToken verified = jwtService.verify(jwt);
+
+        assertTrue(jwtService.isValid(verified, user));
+        assertTrue(jwtService.isValid(verified, user));
+        verify(tokenRepository, times(1)).findByTokenHash(jwtService.hashToken(jwt));
+        assertEquals(1, meterRegistry.get("cache.gets").tags("cache", "tokens", "result", "hit").functionCounter().count());
+        assertEquals(1, meterRegistry.get("cache.gets").tags("cache", "tokens", "result", "miss").functionCounter().count());
+    }
+
+    @Test
+    public void testRevokeAllForUserForcesReload() {
+        String jwt = jwtService.generateToken(user);
+        given(tokenRepository.findByTokenHash(jwtService.hashToken(jwt))).willReturn(Optional.of(Token.builder().build()));
+        VerifiedToken verified = jwtService.verify(jwt);
+        assertTrue(jwtService.isValid(verified, user));
+
+        given(tokenRepository.findByTokenHash(jwtService.hashToken(jwt))).willReturn(Optional.of(Token.builder().loggedOut(true).build()));
+        revocationCache.revokeAllForUser("john_doe");
+
+        assertFalse(jwtService.isValid(verified, user));
+        verify(tokenRepository, times(2)).findByTokenHash(jwtService.hashToken(jwt));
+    }
+
+    @Test
+    public void testRevokeAllForUserHoldsWhenManyUsersAreRevoked() throws InterruptedException {
+        revocationCache = new TokenRevocationCache(2, new SimpleMeterRegistry());
+        jwtService = new JwtService(tokenRepository, revocationCache, Duration.ofHours(24));
+        String jwt = jwtService.generateToken(user);
+        given(tokenRepository.findByTokenHash(jwtService.hashToken(jwt))).willReturn(Optional.of(Token.builder().build()));
+        VerifiedToken verified = jwtService.verify(jwt);
+        assertTrue(jwtService.isValid(verified, user));
+
+        given(tokenRepository.findByTokenHash(jwtService.hashToken(jwt))).willReturn(Optional.of(Token.builder().loggedOut(true).build()));
+        revocationCache.revokeAllForUser("john_doe");
+        // Repeats make the other users look hotter than john_doe to a frequency-based size bound.
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 20; i++) {
+                revocationCache.revokeAllForUser("user" + i);
+            }
+        }
+        // Caffeine applies size bounds asynchronously; let any eviction they trigger happen first.
+        Thread.sleep(500);
+
+        assertFalse(jwtService.isValid(verified, user));
+        verify(tokenRepository, times(2)).findByTokenHash(jwtService.hashToken(jwt));
+    }
+
+    @Test
+    public void testRevokedTokenIsRejectedWithoutQuery() {
+        String jwt = jwtService.generateToken(user);
+        VerifiedToken verified = jwtService.verify(jwt);
+
+        revocationCache.revoke(jwt, verified.getExpiration());
+
+        assertFalse(jwtService.isValid(verified, user));
+        verify(tokenRepository, never()).findByTokenHash(any());
+    }
+}
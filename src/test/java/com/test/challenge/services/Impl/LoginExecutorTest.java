@@ -0,0 +1,75 @@
+package com.test.challenge.services.Impl;
+
+import com.test.challenge.config.QueryCounter;
+import com.test.challenge.config.ServiceOverloadedException;
+import com.test.challenge.service.impl.LoginExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoginExecutorTest {
+    private SimpleMeterRegistry meterRegistry;
+    private LoginExecutor loginExecutor;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        loginExecutor = new LoginExecutor(1, 1, Duration.ofSeconds(3), meterRegistry, new QueryCounter());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        loginExecutor.shutdown();
+    }
+
+    @Test
+    public void testRejectsLoginsBeyondQueue() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> running = loginExecutor.submit(() -> {
+            started.countDown();
+            await(release);
+            return "first";
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = loginExecutor.submit(() -> "second");
+
+        ServiceOverloadedException rejected = assertThrows(ServiceOverloadedException.class,
+                () -> loginExecutor.submit(() -> "third"));
+        assertEquals(Duration.ofSeconds(3), rejected.getRetryAfter());
+        assertEquals(1, meterRegistry.get("auth.login.rejected").counter().count());
+        assertEquals(1, meterRegistry.get("auth.login.queue").gauge().value());
+
+        release.countDown();
+        assertEquals("first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("second", queued.get(5, TimeUnit.SECONDS));
+        assertEquals("fourth", loginExecutor.submit(() -> "fourth").get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testFailedLoginCompletesExceptionally() {
+        CompletableFuture<String> login = loginExecutor.submit(() -> {
+            throw new IllegalArgumentException("Bad credentials");
+        });
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> login.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, failure.getCause());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
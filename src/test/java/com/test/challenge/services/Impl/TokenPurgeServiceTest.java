@@ -0,0 +1,58 @@
+package com.test.challenge.services.Impl;
+
+import com.test.challenge.entities.Token;
+import com.test.challenge.repositories.TokenRepository;
+import com.test.challenge.service.impl.TokenPurgeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@Import({TokenPurgeService.class, SimpleMeterRegistry.class})
+@TestPropertySource(properties = "security.token.purge.batch-size=2")
+public class TokenPurgeServiceTest {
+    @Autowired
+    private TokenRepository tokenRepository;
+
+    @Autowired
+    private TokenPurgeService tokenPurgeService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void testPurgeRemovesExpiredAndLoggedOutTokens() {
+        Instant now = Instant.now();
+        for (int i = 0; i < 5; i++) {
+            tokenRepository.save(token(i, false, now.minus(1, ChronoUnit.HOURS)));
+        }
+        tokenRepository.save(token(5, true, now.plus(1, ChronoUnit.HOURS)));
+        tokenRepository.save(token(6, false, now.plus(1, ChronoUnit.HOURS)));
+
+        TokenPurgeService.PurgeResult result = tokenPurgeService.purge();
+
+        assertEquals(6, result.removed());
+        assertEquals(1, tokenRepository.count());
+        assertEquals(6, meterRegistry.get("auth.tokens.purged").counter().count());
+        assertEquals(1, meterRegistry.get("auth.tokens.purge").timer().count());
+    }
+
+    private Token token(int seed, boolean loggedOut, Instant expiresAt) {
+        byte[] hash = new byte[32];
+        hash[0] = (byte) seed;
+        return Token.builder()
+                .tokenHash(hash)
+                .loggedOut(loggedOut)
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
@@ -0,0 +1,83 @@
+package com.test.challenge.services.Impl;
+
+import com.test.challenge.entities.Token;
+import com.test.challenge.entities.User;
+import com.test.challenge.enums.Role;
+import com.test.challenge.repositories.TokenRepository;
+import com.test.challenge.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+public class TokenRepositoryTest {
+    @Autowired
+    private TokenRepository tokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User john;
+    private User jane;
+    private int tokens;
+
+    @BeforeEach
+    public void setUp() {
+        john = userRepository.save(User.builder().username("john_doe").email("john@example.com").role(Role.USER).build());
+        jane = userRepository.save(User.builder().username("jane_smith").email("jane@example.com").role(Role.USER).build());
+    }
+
+    @Test
+    public void testRevokeAllByUserIdCountsOnlyLiveTokensOfTheUser() {
+        Token first = token(john, false);
+        Token second = token(john, false);
+        Token alreadyOut = token(john, true);
+        Token other = token(jane, false);
+
+        // The count decides whether the revocation cache is told, so tokens already out must not be counted.
+        assertEquals(2, tokenRepository.revokeAllByUserId(john.getId()));
+        entityManager.clear();
+
+        assertTrue(reload(first).isLoggedOut());
+        assertTrue(reload(second).isLoggedOut());
+        assertTrue(reload(alreadyOut).isLoggedOut());
+        assertFalse(reload(other).isLoggedOut());
+        assertEquals(0, tokenRepository.revokeAllByUserId(john.getId()));
+    }
+
+    @Test
+    public void testRevokeByTokenHashLeavesOtherTokensAlone() {
+        Token revoked = token(john, false);
+        Token sameUser = token(john, false);
+        Token other = token(jane, false);
+
+        assertEquals(1, tokenRepository.revokeByTokenHash(revoked.getTokenHash()));
+        entityManager.clear();
+
+        assertTrue(reload(revoked).isLoggedOut());
+        assertFalse(reload(sameUser).isLoggedOut());
+        assertFalse(reload(other).isLoggedOut());
+        assertEquals(0, tokenRepository.revokeByTokenHash(new byte[]{(byte) 0xFF}));
+    }
+
+    private Token token(User user, boolean loggedOut) {
+        return tokenRepository.save(Token.builder()
+                .tokenHash(new byte[]{(byte) tokens++})
+                .loggedOut(loggedOut)
+                .user(user)
+                .build());
+    }
+
+    private Token reload(Token token) {
+        return tokenRepository.findById(token.getId()).orElseThrow();
+    }
+}
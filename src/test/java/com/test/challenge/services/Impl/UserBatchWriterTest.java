@@ -0,0 +1,110 @@
+package com.test.challenge.services.Impl;
+
+import com.test.challenge.entities.User;
+import com.test.challenge.enums.Role;
+import com.test.challenge.repositories.UserRepository;
+import com.test.challenge.service.impl.UserBatchWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import(UserBatchWriter.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class UserBatchWriterTest {
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserBatchWriter userBatchWriter;
+
+    @AfterEach
+    public void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testInsertChunk() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            users.add(user("user" + i));
+        }
+
+        assertEquals(250, userBatchWriter.insert(users));
+        assertEquals(250, userRepository.count());
+        assertTrue(userRepository.findByUsername("user42").isPresent());
+    }
+
+    @Test
+    public void testInsertKeepsValidRowsWhenChunkFails() {
+        userBatchWriter.insert(new ArrayList<>(List.of(user("existing"))));
+
+        int inserted = userBatchWriter.insert(new ArrayList<>(List.of(user("user1"), user("existing"), user("user2"))));
+
+        assertEquals(2, inserted);
+        assertEquals(3, userRepository.count());
+    }
+
+    @Test
+    public void testInsertIgnoresIdsFromFile() {
+        User user = user("user1");
+        user.setId(12345L);
+
+        assertEquals(1, userBatchWriter.insert(new ArrayList<>(List.of(user))));
+        assertEquals(1, userRepository.count());
+    }
+
+    @Test
+    public void testWithoutExistingDropsTakenUsernamesAndEmails() {
+        userBatchWriter.insert(new ArrayList<>(List.of(user("existing"))));
+        User sameEmail = user("other");
+        sameEmail.setEmail("existing@example.com");
+        User noEmail = user("fresh2");
+        noEmail.setEmail(null);
+
+        List<User> fresh = userBatchWriter.withoutExisting(List.of(user("fresh1"), user("existing"), sameEmail, noEmail));
+
+        assertEquals(List.of("fresh1", "fresh2"), fresh.stream().map(User::getUsername).toList());
+    }
+
+    @Test
+    public void testWithoutExistingWithoutEmails() {
+        userBatchWriter.insert(new ArrayList<>(List.of(user("existing"))));
+        User existing = user("existing");
+        existing.setEmail(null);
+
+        assertTrue(userBatchWriter.withoutExisting(List.of(existing)).isEmpty());
+    }
+
+    @Test
+    public void testWithoutExistingKeepsNullEmailsWhenATakenRowHasNoEmail() {
+        User existing = user("existing");
+        existing.setEmail(null);
+        userBatchWriter.insert(new ArrayList<>(List.of(existing)));
+        User noEmail = user("fresh");
+        noEmail.setEmail(null);
+
+        List<User> fresh = userBatchWriter.withoutExisting(List.of(user("existing"), noEmail));
+
+        assertEquals(List.of("fresh"), fresh.stream().map(User::getUsername).toList());
+    }
+
+    private User user(String username) {
+        return User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("password")
+                .role(Role.USER)
+                .build();
+    }
+}
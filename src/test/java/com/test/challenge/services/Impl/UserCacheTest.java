@@ -0,0 +1,69 @@
+package com.test.challenge.services.Impl;
+
+import com.test.challenge.entities.User;
+import com.test.challenge.repositories.UserRepository;
+import com.test.challenge.service.impl.UserCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class UserCacheTest {
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserCache userCache;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userCache = new UserCache(userRepository, 100, Duration.ofMinutes(5), meterRegistry);
+    }
+
+    @Test
+    public void testFindByUsernameReadsThrough() {
+        User user = User.builder().username("john_doe").build();
+        given(userRepository.findByUsername("john_doe")).willReturn(Optional.of(user));
+
+        assertSame(user, userCache.findByUsername("john_doe").orElseThrow());
+        assertSame(user, userCache.findByUsername("john_doe").orElseThrow());
+
+        verify(userRepository, times(1)).findByUsername("john_doe");
+        assertEquals(1, meterRegistry.get("cache.gets").tags("cache", "users", "result", "hit").functionCounter().count());
+        assertEquals(1, meterRegistry.get("cache.gets").tags("cache", "users", "result", "miss").functionCounter().count());
+    }
+
+    @Test
+    public void testUnknownUserIsNotCached() {
+        given(userRepository.findByUsername("ghost")).willReturn(Optional.empty());
+
+        assertTrue(userCache.findByUsername("ghost").isEmpty());
+        assertTrue(userCache.findByUsername("ghost").isEmpty());
+
+        verify(userRepository, times(2)).findByUsername("ghost");
+    }
+
+    @Test
+    public void testInvalidateForcesReload() {
+        User user = User.builder().username("john_doe").build();
+        given(userRepository.findByUsername("john_doe")).willReturn(Optional.of(user));
+        userCache.findByUsername("john_doe");
+
+        userCache.invalidate("john_doe");
+        userCache.findByUsername("john_doe");
+
+        verify(userRepository, times(2)).findByUsername("john_doe");
+    }
+}
@@ -0,0 +1,92 @@
+package com.test.challenge.services.Impl;
+
+import com.test.challenge.entities.Token;
+import com.test.challenge.entities.User;
+import com.test.challenge.enums.Role;
+import com.test.challenge.repositories.TokenRepository;
+import com.test.challenge.repositories.UserRepository;
+import com.test.challenge.service.impl.JwtService;
+import com.test.challenge.service.impl.TokenRevocationCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest
+public class UserChangeRevokerTest {
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TokenRepository tokenRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @SpyBean
+    private TokenRevocationCache revocationCache;
+
+    @Test
+    public void testUpdatingAUserRevokesItsTokens() {
+        User user = saveAdmin("demoted_admin");
+        String jwt = jwtService.generateToken(user);
+        Token token = saveToken(jwt, user);
+        assertTrue(jwtService.isValid(jwtService.verify(jwt), user));
+
+        user.setRole(Role.USER);
+        User demoted = userRepository.save(user);
+
+        assertTrue(tokenRepository.findById(token.getId()).orElseThrow().isLoggedOut());
+        assertFalse(jwtService.isValid(jwtService.verify(jwt), demoted));
+    }
+
+    @Test
+    public void testRevocationCacheIsOnlyTouchedOnceTheRevokeHasCommitted() {
+        User user = saveAdmin("committed_admin");
+        Token token = saveToken(jwtService.generateToken(user), user);
+        TransactionTemplate otherTransaction = new TransactionTemplate(transactionManager);
+        otherTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        List<Boolean> loggedOutWhenRevoked = new ArrayList<>();
+        doAnswer(invocation -> {
+            loggedOutWhenRevoked.add(otherTransaction.execute(status ->
+                    tokenRepository.findById(token.getId()).orElseThrow().isLoggedOut()));
+            return invocation.callRealMethod();
+        }).when(revocationCache).revokeAllForUser(anyString());
+
+        user.setRole(Role.USER);
+        userRepository.save(user);
+
+        assertEquals(List.of(true), loggedOutWhenRevoked);
+    }
+
+    private User saveAdmin(String username) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .role(Role.ADMIN)
+                .build());
+    }
+
+    private Token saveToken(String jwt, User user) {
+        return tokenRepository.save(Token.builder()
+                .tokenHash(jwtService.hashToken(jwt))
+                .expiresAt(jwtService.verify(jwt).getExpiration().toInstant())
+                .user(user)
+                .build());
+    }
+}
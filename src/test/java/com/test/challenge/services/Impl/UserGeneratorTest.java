@@ -0,0 +1,88 @@
+package com.test.challenge.services.Impl;
+
+import com.test.challenge.entities.User;
+import com.test.challenge.enums.GeneratorEngine;
+import com.test.challenge.service.impl.UserGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserGeneratorTest {
+    private UserGenerator sequentialGenerator;
+    private UserGenerator parallelGenerator;
+
+    @BeforeEach
+    public void setUp() {
+        sequentialGenerator = new UserGenerator(10, 1);
+        parallelGenerator = new UserGenerator(10, 3);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        sequentialGenerator.shutdown();
+        parallelGenerator.shutdown();
+    }
+
+    @Test
+    public void testGenerateCount() throws Exception {
+        List<User> users = generate(parallelGenerator, 25, 42L, 0);
+
+        assertEquals(25, users.size());
+        users.forEach(user -> {
+            assertNotNull(user.getUsername());
+            assertNotNull(user.getEmail());
+            assertNotNull(user.getBirthDate());
+            assertNotNull(user.getRole());
+            assertTrue(user.getPassword().length() >= 6);
+        });
+    }
+
+    @Test
+    public void testSameSeedGivesSameUsersWhateverTheThreadCount() throws Exception {
+        assertEquals(generate(sequentialGenerator, 25, 42L, 0), generate(parallelGenerator, 25, 42L, 0));
+    }
+
+    @Test
+    public void testSeedAndShardChangeTheUsers() throws Exception {
+        List<User> users = generate(parallelGenerator, 10, 42L, 0);
+
+        assertNotEquals(users, generate(parallelGenerator, 10, 43L, 0));
+        assertNotEquals(users, generate(parallelGenerator, 10, 42L, 1));
+    }
+
+    @Test
+    public void testDictionaryEngine() throws Exception {
+        List<User> users = generate(parallelGenerator, 25, 42L, 0, GeneratorEngine.DICTIONARY);
+
+        assertEquals(25, users.size());
+        users.forEach(user -> {
+            assertNotNull(user.getFirstName());
+            assertNotNull(user.getCity());
+            assertFalse(user.getFirstName().contains("#{"));
+            assertFalse(user.getCity().contains("#{"));
+            assertNotNull(user.getCompany());
+            assertNotNull(user.getJobPosition());
+            assertTrue(user.getAvatar().startsWith("https://"));
+            assertTrue(user.getEmail().matches("[a-z0-9]+\\.[a-z0-9]+@[a-z.]+"));
+            assertFalse(user.getMobile().contains("#"));
+            assertTrue(user.getPassword().length() >= 6);
+        });
+        assertEquals(users, generate(sequentialGenerator, 25, 42L, 0, GeneratorEngine.DICTIONARY));
+    }
+
+    private List<User> generate(UserGenerator generator, int count, long seed, int shard) throws Exception {
+        return generate(generator, count, seed, shard, GeneratorEngine.FAKER);
+    }
+
+    private List<User> generate(UserGenerator generator, int count, long seed, int shard, GeneratorEngine engine)
+            throws Exception {
+        List<User> users = new ArrayList<>();
+        generator.generate(count, seed, shard, engine, users::add);
+        return users;
+    }
+}
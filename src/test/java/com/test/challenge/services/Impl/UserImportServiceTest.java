@@ -0,0 +1,298 @@
+package com.test.challenge.services.Impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.util.StdDateFormat;
+import com.test.challenge.dto.AuthDto.BatchResponseDTO;
+import com.test.challenge.entities.User;
+import com.test.challenge.enums.Role;
+import com.test.challenge.enums.UserDataFormat;
+import com.test.challenge.service.impl.UserBatchWriter;
+import com.test.challenge.service.impl.UserCache;
+import com.test.challenge.service.impl.UserDataFormats;
+import com.test.challenge.service.impl.UserImportService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class UserImportServiceTest {
+    @Mock
+    private UserBatchWriter batchWriter;
+
+    @Mock
+    private UserCache userCache;
+
+    private ObjectMapper objectMapper;
+    private UserImportService userImportService;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        objectMapper = new ObjectMapper().setDateFormat(new StdDateFormat());
+        meterRegistry = new SimpleMeterRegistry();
+        userImportService = new UserImportService(batchWriter, userCache, new UserDataFormats(objectMapper), 2, 2, 10, 4, 2,
+                1000, meterRegistry);
+        when(batchWriter.insert(anyList())).thenAnswer(invocation -> invocation.<List<User>>getArgument(0).size());
+        when(batchWriter.withoutExisting(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    public void testBatchImportUsers() {
+        String jsonData = "[{\"username\":\"user1\", \"password\":\"pass1\"}, {\"username\":\"user2\", \"password\":\"pass2\"}]";
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(jsonData.getBytes());
+        BatchResponseDTO response = userImportService.importUsers(inputStream);
+        assertEquals(2, response.getSuccessfullyInsertedRows());
+        assertEquals(0, response.getFailedToInsertRows());
+        verify(batchWriter, times(1)).insert(argThat(users -> users.size() == 2));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userImportService.shutdown();
+    }
+
+    @Test
+    public void testImportFailsInsteadOfHangingOnceShutDown() {
+        userImportService.shutdown();
+        String jsonData = "[{\"username\":\"user1\"}, {\"username\":\"user2\"}, {\"username\":\"user3\"}]";
+
+        BatchResponseDTO response = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> userImportService.importUsers(new ByteArrayInputStream(jsonData.getBytes())));
+
+        assertEquals(0, response.getSuccessfullyInsertedRows());
+        assertEquals(-1, response.getFailedToInsertRows());
+    }
+
+    @Test
+    public void testImportInvalidatesCacheChunkByChunk() {
+        String jsonData = "[{\"username\":\"user1\"}, {\"username\":\"user2\"}, {\"username\":\"user3\"}]";
+        BatchResponseDTO response = userImportService.importUsers(new ByteArrayInputStream(jsonData.getBytes()));
+        assertEquals(3, response.getSuccessfullyInsertedRows());
+        verify(userCache).invalidateAll(List.of("user1", "user2"));
+        verify(userCache).invalidateAll(List.of("user3"));
+    }
+
+    @Test
+    public void testImportCountsFailedRows() {
+        when(batchWriter.insert(argThat(users -> users.stream().anyMatch(user -> "dup".equals(user.getUsername())))))
+                .thenAnswer(invocation -> invocation.<List<User>>getArgument(0).size() - 1);
+        String jsonData = "[{\"username\":\"user1\"}, {\"username\":\"dup\"}, {\"username\":\"user3\"}]";
+        BatchResponseDTO response = userImportService.importUsers(new ByteArrayInputStream(jsonData.getBytes()));
+        assertEquals(2, response.getSuccessfullyInsertedRows());
+        assertEquals(1, response.getFailedToInsertRows());
+    }
+
+    @Test
+    public void testImportKeepsRowsBeforeMalformedInput() {
+        String jsonData = "[{\"username\":\"user1\"}, {\"username\":\"user2\"}, {\"username\":";
+        BatchResponseDTO response = userImportService.importUsers(new ByteArrayInputStream(jsonData.getBytes()));
+        assertEquals(2, response.getSuccessfullyInsertedRows());
+        assertEquals(-1, response.getFailedToInsertRows());
+        assertEquals(1, meterRegistry.get("users.import").tag("outcome", "failed").timer().count());
+        assertEquals(0, meterRegistry.get("users.import").tag("outcome", "completed").timer().count());
+    }
+
+    @Test
+    public void testImportReadsGeneratedUsers() throws Exception {
+        User user = User.builder()
+                .username("john_doe")
+                .email("john.doe@example.com")
+                .birthDate(new Date())
+                .role(Role.ADMIN)
+                .build();
+        byte[] generated = objectMapper.writeValueAsBytes(List.of(user));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<User>> saved = ArgumentCaptor.forClass(List.class);
+
+        BatchResponseDTO response = userImportService.importUsers(new ByteArrayInputStream(generated));
+
+        assertEquals(1, response.getSuccessfullyInsertedRows());
+        verify(batchWriter).insert(saved.capture());
+        assertEquals("john_doe", saved.getValue().get(0).getUsername());
+        assertEquals(Role.ADMIN, saved.getValue().get(0).getRole());
+    }
+
+    @Test
+    public void testImportSplitsLargeFilesAcrossWorkers() throws Exception {
+        StringBuilder jsonData = new StringBuilder("[");
+        for (int i = 0; i < 101; i++) {
+            jsonData.append(i == 0 ? "" : ",").append("{\"username\":\"user").append(i).append("\"}");
+        }
+        jsonData.append("]");
+
+        BatchResponseDTO response = userImportService.importUsers(new ByteArrayInputStream(jsonData.toString().getBytes()));
+
+        assertEquals(101, response.getSuccessfullyInsertedRows());
+        assertEquals(0, response.getFailedToInsertRows());
+        verify(batchWriter, times(51)).insert(anyList());
+    }
+
+    @Test
+    public void testImportCountsChunkThatThrows() {
+        when(batchWriter.insert(argThat(users -> users.stream().anyMatch(user -> "boom".equals(user.getUsername())))))
+                .thenThrow(new IllegalStateException("database down"));
+        String jsonData = "[{\"username\":\"boom\"}, {\"username\":\"user2\"}, {\"username\":\"user3\"}]";
+
+        BatchResponseDTO response = userImportService.importUsers(new ByteArrayInputStream(jsonData.getBytes()));
+
+        assertEquals(1, response.getSuccessfullyInsertedRows());
+        assertEquals(2, response.getFailedToInsertRows());
+    }
+
+    @Test
+    public void testImportHashesPasswords() {
+        String existingHash = new BCryptPasswordEncoder(4).encode("secret");
+        String jsonData = "[{\"username\":\"user1\", \"password\":\"pass1\"}, {\"username\":\"user2\", \"password\":\"" + existingHash + "\"}]";
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<User>> saved = ArgumentCaptor.forClass(List.class);
+
+        userImportService.importUsers(new ByteArrayInputStream(jsonData.getBytes()));
+
+        verify(batchWriter).insert(saved.capture());
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+        assertTrue(encoder.matches("pass1", saved.getValue().get(0).getPassword()));
+        assertEquals(existingHash, saved.getValue().get(1).getPassword());
+    }
+
+    @Test
+    public void testImportDetectsNdjson() {
+        String ndjson = "{\"username\":\"user1\"}\n{\"username\":\"user2\"}\n{\"username\":\"user3\"}\n";
+        BatchResponseDTO response = userImportService.importUsers(new ByteArrayInputStream(ndjson.getBytes()));
+        assertEquals(3, response.getSuccessfullyInsertedRows());
+        assertEquals(0, response.getFailedToInsertRows());
+    }
+
+    @Test
+    public void testImportDetectsCsvWithHeader() {
+        String csv = "username,email,role\nuser1,user1@example.com,ADMIN\nuser2,,USER\n";
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<User>> saved = ArgumentCaptor.forClass(List.class);
+
+        BatchResponseDTO response = userImportService.importUsers(new ByteArrayInputStream(csv.getBytes()));
+
+        assertEquals(2, response.getSuccessfullyInsertedRows());
+        verify(batchWriter).insert(saved.capture());
+        assertEquals(Role.ADMIN, saved.getValue().get(0).getRole());
+        assertEquals("user1@example.com", saved.getValue().get(0).getEmail());
+        assertEquals(null, saved.getValue().get(1).getEmail());
+    }
+
+    @Test
+    public void testImportReadsGzippedGeneratedCsv() throws Exception {
+        UserDataFormats formats = new UserDataFormats(objectMapper);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes);
+             SequenceWriter writer = formats.openWriter(UserDataFormat.CSV, gzip)) {
+            writer.write(User.builder().username("john_doe").birthDate(new Date(0)).role(Role.USER).build());
+            writer.write(User.builder().username("jane_doe").firstName("Jane, \"JD\"").role(Role.ADMIN).build());
+        }
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<User>> saved = ArgumentCaptor.forClass(List.class);
+
+        BatchResponseDTO response = userImportService.importUsers(new ByteArrayInputStream(bytes.toByteArray()), UserDataFormat.CSV);
+
+        assertEquals(2, response.getSuccessfullyInsertedRows());
+        verify(batchWriter).insert(saved.capture());
+        assertEquals(new Date(0), saved.getValue().get(0).getBirthDate());
+        assertEquals("Jane, \"JD\"", saved.getValue().get(1).getFirstName());
+        assertEquals(Role.ADMIN, saved.getValue().get(1).getRole());
+    }
+
+    @Test
+    public void testImportReportsProgressPerChunk() {
+        when(batchWriter.insert(argThat(users -> users.stream().anyMatch(user -> "dup".equals(user.getUsername())))))
+                .thenAnswer(invocation -> invocation.<List<User>>getArgument(0).size() - 1);
+        String jsonData = "[{\"username\":\"user1\"}, {\"username\":\"dup\"}, {\"username\":\"user3\"}]";
+        AtomicInteger inserted = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger chunks = new AtomicInteger();
+
+        userImportService.importUsers(new ByteArrayInputStream(jsonData.getBytes()), null, (chunkInserted, chunkFailed, chunkDuplicates) -> {
+            inserted.addAndGet(chunkInserted);
+            failed.addAndGet(chunkFailed);
+            chunks.incrementAndGet();
+        });
+
+        assertEquals(2, inserted.get());
+        assertEquals(1, failed.get());
+        assertEquals(2, chunks.get());
+    }
+
+    @Test
+    public void testImportDropsRowsRepeatedInFile() {
+        String jsonData = "[{\"username\":\"user1\", \"email\":\"a@example.com\"}, {\"username\":\"user2\", \"email\":\"b@example.com\"},"
+                + " {\"username\":\"user1\"}, {\"username\":\"user3\", \"email\":\"b@example.com\"}, {\"username\":\"user4\"}]";
+
+        BatchResponseDTO response = userImportService.importUsers(new ByteArrayInputStream(jsonData.getBytes()));
+
+        assertEquals(3, response.getSuccessfullyInsertedRows());
+        assertEquals(2, response.getFailedToInsertRows());
+        assertEquals(2, response.getDuplicateRows());
+        verify(batchWriter, times(2)).insert(anyList());
+        assertEquals(3, meterRegistry.get("users.import.rows").tag("outcome", "inserted").counter().count());
+        assertEquals(2, meterRegistry.get("users.import.rows").tag("outcome", "duplicate").counter().count());
+        assertEquals(1, meterRegistry.get("users.import").tag("outcome", "completed").timer().count());
+    }
+
+    @Test
+    public void testImportStopsRememberingRowsPastTheDedupeCap() {
+        UserImportService capped = new UserImportService(batchWriter, userCache, new UserDataFormats(objectMapper), 10, 2, 10, 4, 2,
+                2, meterRegistry);
+        String jsonData = "[{\"username\":\"user1\", \"email\":\"a@example.com\"}, {\"username\":\"user2\", \"email\":\"b@example.com\"},"
+                + " {\"username\":\"user2\"}, {\"username\":\"user1\"}]";
+
+        try {
+            BatchResponseDTO response = capped.importUsers(new ByteArrayInputStream(jsonData.getBytes()));
+
+            // user1 was remembered before the cap was reached, user2 was not
+            assertEquals(3, response.getSuccessfullyInsertedRows());
+            assertEquals(1, response.getDuplicateRows());
+        } finally {
+            capped.shutdown();
+        }
+    }
+
+    @Test
+    public void testImportSkipsExistingUsersBeforeHashing() {
+        when(batchWriter.withoutExisting(anyList())).thenAnswer(invocation -> invocation.<List<User>>getArgument(0).stream()
+                .filter(user -> !user.getUsername().startsWith("existing"))
+                .toList());
+        String jsonData = "[{\"username\":\"existing1\", \"password\":\"pass\"}, {\"username\":\"existing2\", \"password\":\"pass\"},"
+                + " {\"username\":\"user1\", \"password\":\"pass\"}]";
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<User>> saved = ArgumentCaptor.forClass(List.class);
+
+        BatchResponseDTO response = userImportService.importUsers(new ByteArrayInputStream(jsonData.getBytes()));
+
+        assertEquals(1, response.getSuccessfullyInsertedRows());
+        assertEquals(2, response.getFailedToInsertRows());
+        assertEquals(2, response.getDuplicateRows());
+        verify(batchWriter).insert(saved.capture());
+        assertEquals(List.of("user1"), saved.getValue().stream().map(User::getUsername).toList());
+    }
+}
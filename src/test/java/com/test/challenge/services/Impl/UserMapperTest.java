@@ -0,0 +1,50 @@
+package com.test.challenge.services.Impl;
+
+import com.test.challenge.dto.AuthDto.UserDTO;
+import com.test.challenge.entities.User;
+import com.test.challenge.enums.Role;
+import com.test.challenge.service.impl.UserMapper;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class UserMapperTest {
+    private final UserMapper userMapper = new UserMapper();
+    private final ModelMapper modelMapper = new ModelMapper();
+
+    @Test
+    public void testMatchesModelMapper() {
+        User user = User.builder()
+                .id(42L)
+                .firstName("John")
+                .lastName("Doe")
+                .birthDate(new Date(0))
+                .city("Casablanca")
+                .country("MA")
+                .avatar("https://example.com/avatar.png")
+                .company("Acme")
+                .jobPosition("Engineer")
+                .mobile("+212600000000")
+                .username("john_doe")
+                .email("john.doe@example.com")
+                .password("hash")
+                .role(Role.ADMIN)
+                .version(3L)
+                .build();
+
+        assertEquals(modelMapper.map(user, UserDTO.class), userMapper.toDto(user));
+    }
+
+    @Test
+    public void testMapsMissingValuesToNull() {
+        User user = User.builder().username("john_doe").build();
+
+        assertEquals(modelMapper.map(user, UserDTO.class), userMapper.toDto(user));
+        assertNull(userMapper.toDto(user).getRole());
+        assertNull(userMapper.toDto(null));
+    }
+}
@@ -0,0 +1,100 @@
+package com.test.challenge.services.Impl;
+
+import com.test.challenge.dto.AuthDto.KeysetPageDTO;
+import com.test.challenge.dto.AuthDto.UserSearchDTO;
+import com.test.challenge.dto.AuthDto.UserSummaryDTO;
+import com.test.challenge.entities.Token;
+import com.test.challenge.entities.User;
+import com.test.challenge.enums.Role;
+import com.test.challenge.repositories.TokenRepository;
+import com.test.challenge.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DataJpaTest
+public class UserRepositoryTest {
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TokenRepository tokenRepository;
+
+    private int tokens;
+
+    @Test
+    public void testLoggedOutSummariesArePagedByIdWithoutRepeats() {
+        User first = userWithTokens("first", true, true, true);
+        userWithTokens("active", false);
+        User second = userWithTokens("second", true, false);
+        User third = userWithTokens("third", true);
+
+        KeysetPageDTO<UserSummaryDTO> page = KeysetPageDTO.of(
+                userRepository.findLoggedOutSummaries(Long.MIN_VALUE, PageRequest.ofSize(3)), 2, UserSummaryDTO::getId);
+
+        assertEquals(List.of("first", "second"), page.getContent().stream().map(UserSummaryDTO::getUsername).toList());
+        assertEquals(second.getId(), page.getNextCursor());
+        assertEquals(Role.USER, page.getContent().get(0).getRole());
+        assertEquals(first.getEmail(), page.getContent().get(0).getEmail());
+
+        KeysetPageDTO<UserSummaryDTO> last = KeysetPageDTO.of(
+                userRepository.findLoggedOutSummaries(page.getNextCursor(), PageRequest.ofSize(3)), 2, UserSummaryDTO::getId);
+
+        assertEquals(List.of(third.getId()), last.getContent().stream().map(UserSummaryDTO::getId).toList());
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    public void testSearchCombinesFiltersAndPagesById() {
+        User first = userRepository.save(user("first", "France", "Acme", Role.USER));
+        userRepository.save(user("admin", "France", "Acme", Role.ADMIN));
+        userRepository.save(user("other", "Spain", "Acme", Role.USER));
+        User second = userRepository.save(user("second", "France", "Acme", Role.USER));
+        User third = userRepository.save(user("third", "France", "Acme", Role.USER));
+        UserSearchDTO filter = UserSearchDTO.builder().country("France").company("Acme").role(Role.USER).city(" ").build();
+
+        KeysetPageDTO<UserSummaryDTO> page = KeysetPageDTO.of(
+                userRepository.search(filter, Long.MIN_VALUE, 3), 2, UserSummaryDTO::getId);
+
+        assertEquals(List.of(first.getId(), second.getId()), page.getContent().stream().map(UserSummaryDTO::getId).toList());
+        assertEquals(second.getId(), page.getNextCursor());
+        assertEquals("France", page.getContent().get(0).getCountry());
+
+        List<UserSummaryDTO> last = userRepository.search(filter, page.getNextCursor(), 3);
+
+        assertEquals(List.of(third.getId()), last.stream().map(UserSummaryDTO::getId).toList());
+        assertEquals(5, userRepository.search(new UserSearchDTO(), Long.MIN_VALUE, 10).size());
+    }
+
+    private User user(String username, String country, String company, Role role) {
+        return User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .country(country)
+                .company(company)
+                .role(role)
+                .build();
+    }
+
+    private User userWithTokens(String username, boolean... loggedOut) {
+        User user = userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .role(Role.USER)
+                .build());
+        for (boolean out : loggedOut) {
+            tokenRepository.save(Token.builder()
+                    .tokenHash(new byte[]{(byte) tokens++})
+                    .loggedOut(out)
+                    .user(user)
+                    .build());
+        }
+        return user;
+    }
+}
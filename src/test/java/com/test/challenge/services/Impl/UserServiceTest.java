@@ -1,27 +1,35 @@
 package com.test.challenge.services.Impl;
 
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import com.test.challenge.dto.AuthDto.AuthRequestDTO;
 import com.test.challenge.dto.AuthDto.AuthResponseDTO;
 import com.test.challenge.dto.AuthDto.BatchResponseDTO;
 import com.test.challenge.dto.AuthDto.UserDTO;
 import com.test.challenge.entities.Token;
 import com.test.challenge.entities.User;
+import com.test.challenge.enums.GeneratorEngine;
 import com.test.challenge.enums.Role;
+import com.test.challenge.enums.UserDataFormat;
 import com.test.challenge.repositories.TokenRepository;
 import com.test.challenge.repositories.UserRepository;
 import com.test.challenge.service.impl.JwtService;
+import com.test.challenge.service.impl.UserCache;
+import com.test.challenge.service.impl.UserDataFormats;
+import com.test.challenge.service.impl.UserGenerator;
+import com.test.challenge.service.impl.UserImportService;
+import com.test.challenge.service.impl.UserMapper;
 import com.test.challenge.service.impl.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
-import org.modelmapper.ModelMapper;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
@@ -29,11 +37,15 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,6 +54,9 @@ public class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserCache userCache;
+
     @Mock
     private PasswordEncoder passwordEncoder;
 
@@ -55,9 +70,15 @@ public class UserServiceTest {
     private AuthenticationManager authenticationManager;
 
     @Mock
-    private ModelMapper modelMapper;
+    private UserMapper userMapper;
+    @Mock
+    private UserDataFormats userDataFormats;
     @Mock
-    private ObjectMapper objectMapper;
+    private UserImportService userImportService;
+    @Mock
+    private UserGenerator userGenerator;
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @InjectMocks
     private UserService userService;
@@ -128,19 +149,26 @@ public class UserServiceTest {
 
 
     @Test
-    public void testBatchImportUsers() throws Exception {
-        String jsonData = "[{\"username\":\"user1\", \"password\":\"pass1\"}, {\"username\":\"user2\", \"password\":\"pass2\"}]";
-        ByteArrayInputStream inputStream = new ByteArrayInputStream(jsonData.getBytes());
-        List<User> users = Arrays.asList(
-                User.builder().username("user1").password("pass1").build(),
-                User.builder().username("user2").password("pass2").build()
-        );
-        when(objectMapper.readValue(any(InputStream.class), any(TypeReference.class))).thenReturn(users);
-        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    public void testGenerateUsersTimesFailedRequests() throws IOException {
+        given(userDataFormats.openWriter(any(), any())).willReturn(mock(SequenceWriter.class));
+        willThrow(new IOException("client went away"))
+                .given(userGenerator).generate(anyInt(), anyLong(), anyInt(), any(), any());
+
+        assertThrows(IOException.class, () -> userService.generateUsers(10, 42L, 0, GeneratorEngine.FAKER,
+                UserDataFormat.JSON, false, new ByteArrayOutputStream()));
+
+        assertEquals(1, meterRegistry.get("users.generate").tag("outcome", "failed").timer().count());
+        assertNull(meterRegistry.find("users.generated").counter());
+    }
+
+    @Test
+    public void testBatchImportUsers() {
+        ByteArrayInputStream inputStream = new ByteArrayInputStream("[]".getBytes());
+        when(userImportService.importUsers(inputStream)).thenReturn(new BatchResponseDTO(2, 0));
         BatchResponseDTO response = userService.batchImportUsers(inputStream);
         assertEquals(2, response.getSuccessfullyInsertedRows());
         assertEquals(0, response.getFailedToInsertRows());
-        verify(userRepository, times(2)).save(any(User.class));
+        verify(userImportService).importUsers(inputStream);
     }
 
 